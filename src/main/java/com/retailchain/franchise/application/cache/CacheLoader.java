@@ -0,0 +1,266 @@
+package com.retailchain.franchise.application.cache;
+
+import com.retailchain.franchise.domain.port.output.CacheAccessTracker;
+import com.retailchain.franchise.domain.port.output.CacheRepository;
+import com.retailchain.franchise.domain.port.output.WriteRateTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache-aside reads with stale-while-revalidate. Each value is stored with a meta entry
+ * holding its soft expiry; both live in Redis for the hard TTL. A value past its soft
+ * expiry is returned at once while one refresh per key runs in the background, and it
+ * keeps being served if that refresh fails or times out. A miss has nothing stale to
+ * serve, so its load is left to run as long as the query does. Lookups that find nothing
+ * leave only a negative meta entry, kept for the policy's negative TTL. Every read is
+ * recorded with the access tracker, which decides whether a missed key gets stored. The
+ * soft TTL of each key is adapted to how often it is written.
+ * <p>
+ * Rebuilds are coordinated across nodes with a short lease (SET NX PX). Only the holder
+ * loads a missed or expired key; other nodes keep serving the stale value, or on a miss
+ * poll for the holder's result for up to the load timeout before loading it themselves.
+ * Each lease holds a token of its own and is only released by the load that took it.
+ * A miss load has no timeout, so its lease is renewed for as long as the load runs.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheLoader {
+    
+    public static final String META_SUFFIX = ":meta";
+    static final String LEASE_SUFFIX = ":lease";
+    private static final Duration LEASE_POLL_INTERVAL = Duration.ofMillis(50);
+    
+    private final CacheRepository cacheRepository;
+    private final MeterRegistry meterRegistry;
+    private final CacheAccessTracker accessTracker;
+    private final WriteRateTracker writeRateTracker;
+    private final Map<String, Boolean> refreshing = new ConcurrentHashMap<>();
+    private final String leaseOwner = UUID.randomUUID().toString();
+    private final AtomicLong leaseSequence = new AtomicLong();
+    
+    public <T> Mono<T> get(String key, Class<T> type, CachePolicy policy, Supplier<Mono<T>> loader) {
+        accessTracker.record(key);
+        return readEntry(key, type)
+            .flatMap(entry -> {
+                Optional<T> value = entry.getT1();
+                Optional<CacheMeta> meta = entry.getT2();
+                if (value.isEmpty()) {
+                    if (meta.isPresent() && meta.get().isNegative()) {
+                        meterRegistry.counter("franchise.cache.negative.hits", "cache", namespaceOf(key)).increment();
+                        return Mono.empty();
+                    }
+                    // A value that will not be stored leaves nothing for other nodes to wait for
+                    return admit(key)
+                        ? loadExclusively(key, type, policy, loader)
+                        : load(key, policy, loader, false);
+                }
+                if (meta.isEmpty() || meta.get().getSoftExpiresAt() <= System.currentTimeMillis()) {
+                    refreshInBackground(key, policy, loader);
+                }
+                return Mono.just(value.get());
+            });
+    }
+    
+    public <T> Mono<Void> put(String key, T value, CachePolicy policy) {
+        return putAll(Map.of(key, value), policy);
+    }
+    
+    public <T> Mono<Void> putAll(Map<String, T> values, CachePolicy policy) {
+        long now = System.currentTimeMillis();
+        Duration hardTtl = policy.hardTtl();
+        Map<String, Object> entries = new HashMap<>();
+        for (Map.Entry<String, T> entry : values.entrySet()) {
+            Duration softTtl = writeRateTracker.ttlFor(entry.getKey(), policy.softTtl());
+            // Stale values stay available for at least as long as they are fresh
+            hardTtl = softTtl.compareTo(hardTtl) > 0 ? softTtl : hardTtl;
+            entries.put(entry.getKey(), entry.getValue());
+            entries.put(entry.getKey() + META_SUFFIX, new CacheMeta(now + softTtl.toMillis(), false));
+        }
+        return cacheRepository.setAll(entries, hardTtl)
+            .onErrorResume(e -> {
+                log.warn("Failed to cache {} values: {}", values.size(), e.getMessage());
+                return Mono.empty();
+            });
+    }
+    
+    // Plain multi-get for batch lookups; read failures count as misses
+    public <T> Mono<Map<String, T>> getAll(Collection<String> keys, Class<T> type) {
+        keys.forEach(accessTracker::record);
+        return cacheRepository.getAll(keys, type)
+            .onErrorResume(e -> {
+                log.warn("Cache read failed for {} keys: {}", keys.size(), e.getMessage());
+                return Mono.just(Map.of());
+            });
+    }
+    
+    // putAll() for values that were loaded after a miss, limited to the keys the tracker admits
+    public <T> Mono<Void> admitAll(Map<String, T> values, CachePolicy policy) {
+        Map<String, T> admitted = new HashMap<>();
+        values.forEach((key, value) -> {
+            if (admit(key)) {
+                admitted.put(key, value);
+            }
+        });
+        return admitted.isEmpty() ? Mono.empty() : putAll(admitted, policy);
+    }
+    
+    public Mono<Void> evict(String key) {
+        return cacheRepository.deleteAll(List.of(key, key + META_SUFFIX));
+    }
+    
+    private <T> Mono<Tuple2<Optional<T>, Optional<CacheMeta>>> readEntry(String key, Class<T> type) {
+        // Both reads are in flight together, so they share one round trip on the connection
+        return Mono.zip(read(key, type), read(key + META_SUFFIX, CacheMeta.class));
+    }
+    
+    private <V> Mono<Optional<V>> read(String key, Class<V> type) {
+        return cacheRepository.get(key, type)
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .onErrorResume(e -> {
+                log.warn("Cache read failed for key {}: {}", key, e.getMessage());
+                return Mono.just(Optional.empty());
+            });
+    }
+    
+    private boolean admit(String key) {
+        boolean admitted = accessTracker.shouldAdmit(key);
+        meterRegistry.counter("franchise.cache.admissions", "result", admitted ? "admitted" : "rejected").increment();
+        return admitted;
+    }
+    
+    private <T> Mono<T> load(String key, CachePolicy policy, Supplier<Mono<T>> loader, boolean store) {
+        return loader.get()
+            .flatMap(value -> store ? put(key, value, policy).thenReturn(value) : Mono.just(value))
+            .switchIfEmpty(Mono.defer(() -> putNegative(key, policy).then(Mono.empty())));
+    }
+    
+    private <T> Mono<T> loadExclusively(String key, Class<T> type, CachePolicy policy, Supplier<Mono<T>> loader) {
+        String token = nextLeaseToken();
+        return acquireLease(key, token, policy)
+            .flatMap(acquired -> acquired
+                ? withLease(key, token, renewingLease(key, token, policy, load(key, policy, loader, true)))
+                : awaitRebuild(key, type, policy)
+                    .switchIfEmpty(Mono.defer(() -> {
+                        meterRegistry.counter("franchise.cache.leases", "result", "wait_timeout").increment();
+                        return load(key, policy, loader, true).map(Optional::of);
+                    }))
+                    .flatMap(Mono::justOrEmpty));
+    }
+    
+    // Empty when the cache could not be asked, in which case the caller loads without a lease
+    private Mono<Boolean> acquireLease(String key, String token, CachePolicy policy) {
+        return cacheRepository.setIfAbsent(key + LEASE_SUFFIX, token, leaseTtl(policy))
+            .onErrorResume(e -> {
+                log.warn("Failed to acquire rebuild lease for key {}: {}", key, e.getMessage());
+                return Mono.empty();
+            })
+            .defaultIfEmpty(true)
+            .doOnNext(acquired -> meterRegistry.counter("franchise.cache.leases",
+                "result", acquired ? "acquired" : "contended").increment());
+    }
+    
+    // Outlives the load timeout, so a refreshing holder is never overtaken while it is still loading
+    private static Duration leaseTtl(CachePolicy policy) {
+        return policy.loadTimeout().multipliedBy(2);
+    }
+    
+    // Extends the lease at half its TTL until the load ends, or until it turns out to be lost
+    private <T> Mono<T> renewingLease(String key, String token, CachePolicy policy, Mono<T> load) {
+        Duration leaseTtl = leaseTtl(policy);
+        Flux<Boolean> renewals = Flux.interval(leaseTtl.dividedBy(2))
+            .concatMap(tick -> cacheRepository.expireIfEquals(key + LEASE_SUFFIX, token, leaseTtl)
+                .onErrorResume(e -> {
+                    log.debug("Failed to renew rebuild lease for key {}: {}", key, e.getMessage());
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(true))
+            .takeWhile(Boolean::booleanValue);
+        return Mono.defer(() -> {
+            Disposable renewal = renewals.subscribe();
+            return load.doFinally(signal -> renewal.dispose());
+        });
+    }
+    
+    // A load that outlived its lease finds another token there and leaves that lease alone
+    private <T> Mono<T> withLease(String key, String token, Mono<T> rebuild) {
+        String leaseKey = key + LEASE_SUFFIX;
+        return Mono.usingWhen(Mono.just(leaseKey), lease -> rebuild,
+            lease -> releaseLease(lease, token), (lease, error) -> releaseLease(lease, token),
+            lease -> releaseLease(lease, token));
+    }
+    
+    private Mono<Void> releaseLease(String leaseKey, String token) {
+        return cacheRepository.deleteIfEquals(leaseKey, token)
+            .then()
+            .onErrorResume(e -> {
+                log.debug("Failed to release rebuild lease {}, it expires on its own: {}", leaseKey, e.getMessage());
+                return Mono.empty();
+            });
+    }
+    
+    // Holds the rebuilt value, or an empty Optional if the holder found nothing; empty on timeout
+    private <T> Mono<Optional<T>> awaitRebuild(String key, Class<T> type, CachePolicy policy) {
+        return Flux.interval(LEASE_POLL_INTERVAL)
+            .concatMap(tick -> readEntry(key, type))
+            .filter(entry -> entry.getT1().isPresent() || entry.getT2().map(CacheMeta::isNegative).orElse(false))
+            .next()
+            .map(Tuple2::getT1)
+            .timeout(policy.loadTimeout(), Mono.empty());
+    }
+    
+    // Replaced by put() when the id is created, since that rewrites the meta entry
+    private Mono<Void> putNegative(String key, CachePolicy policy) {
+        if (policy.negativeTtl() == null || policy.negativeTtl().isZero()) {
+            return Mono.empty();
+        }
+        return cacheRepository.set(key + META_SUFFIX, new CacheMeta(0, true), policy.negativeTtl())
+            .onErrorResume(e -> {
+                log.warn("Failed to cache negative entry for key {}: {}", key, e.getMessage());
+                return Mono.empty();
+            });
+    }
+    
+    private String nextLeaseToken() {
+        return leaseOwner + ":" + leaseSequence.incrementAndGet();
+    }
+    
+    private static String namespaceOf(String key) {
+        int separator = key.indexOf(':');
+        return separator > 0 ? key.substring(0, separator) : key;
+    }
+    
+    private <T> void refreshInBackground(String key, CachePolicy policy, Supplier<Mono<T>> loader) {
+        if (refreshing.putIfAbsent(key, Boolean.TRUE) != null) {
+            return;
+        }
+        // Keys already in the cache were admitted when they were first stored; without the
+        // lease another node is refreshing the key and the stale value keeps being served
+        String token = nextLeaseToken();
+        acquireLease(key, token, policy)
+            .filter(Boolean::booleanValue)
+            .flatMap(acquired -> withLease(key, token, load(key, policy, () -> loader.get().timeout(policy.loadTimeout()), true)
+                .switchIfEmpty(Mono.defer(() -> cacheRepository.delete(key).then(Mono.empty())))))
+            .doFinally(signal -> refreshing.remove(key))
+            .subscribe(
+                value -> log.debug("Refreshed cached value for key: {}", key),
+                error -> log.warn("Refresh failed for key {}, serving stale value: {}", key, error.toString()));
+    }
+}
@@ -0,0 +1,14 @@
+package com.retailchain.franchise.application.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheMeta {
+    private long softExpiresAt;
+    // Set on entries that record the id does not exist
+    private boolean negative;
+}
@@ -0,0 +1,46 @@
+package com.retailchain.franchise.application.cache;
+
+import com.retailchain.franchise.domain.port.output.CacheRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Generation-scoped cache keys. Every key of a namespace embeds the namespace's current
+ * generation, so one INCR of the generation invalidates the whole family of keys without
+ * scanning Redis; entries of older generations are never read again and expire with their TTL.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheNamespaces {
+    
+    static final String GENERATION_SUFFIX = ":gen";
+    
+    private final CacheRepository cacheRepository;
+    
+    public static String franchise(Long franchiseId) {
+        return "franchise:" + franchiseId;
+    }
+    
+    // Empty when the generation cannot be read, in which case callers skip the cache
+    public Mono<String> key(String namespace, String name) {
+        return cacheRepository.increment(namespace + GENERATION_SUFFIX, 0)
+            .map(generation -> namespace + ":g" + generation + ":" + name)
+            .onErrorResume(e -> {
+                log.warn("Failed to read cache generation of {}: {}", namespace, e.getMessage());
+                return Mono.empty();
+            });
+    }
+    
+    public Mono<Void> invalidate(String namespace) {
+        return cacheRepository.increment(namespace + GENERATION_SUFFIX, 1)
+            .doOnNext(generation -> log.debug("Cache namespace {} moved to generation {}", namespace, generation))
+            .onErrorResume(e -> {
+                log.warn("Failed to invalidate cache namespace {}: {}", namespace, e.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+}
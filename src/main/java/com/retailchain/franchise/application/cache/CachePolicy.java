@@ -0,0 +1,13 @@
+package com.retailchain.franchise.application.cache;
+
+import java.time.Duration;
+
+/**
+ * softTtl: after it a cached value is still served but refreshed in the background.
+ * hardTtl: when Redis drops the value; until then it is also served if a refresh fails.
+ * loadTimeout: longest wait on a background refresh before it counts as failed, and on
+ *              another node's rebuild before a miss is loaded here.
+ * negativeTtl: how long a lookup that found nothing is remembered (zero disables it).
+ */
+public record CachePolicy(Duration softTtl, Duration hardTtl, Duration loadTimeout, Duration negativeTtl) {
+}
@@ -0,0 +1,14 @@
+package com.retailchain.franchise.application.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdjustStockRequest {
+    @NotNull(message = "Delta is required")
+    private Integer delta;
+}
@@ -0,0 +1,16 @@
+package com.retailchain.franchise.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentDto {
+    private Long productId;
+    private Integer delta;
+    private Integer stock;
+}
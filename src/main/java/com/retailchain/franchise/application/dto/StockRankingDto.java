@@ -0,0 +1,18 @@
+package com.retailchain.franchise.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockRankingDto {
+    private Long rank;
+    private Long productId;
+    private String productName;
+    private Integer stock;
+    private Long branchId;
+}
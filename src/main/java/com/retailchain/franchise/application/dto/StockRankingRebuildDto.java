@@ -0,0 +1,15 @@
+package com.retailchain.franchise.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockRankingRebuildDto {
+    private Long franchiseId;
+    private Long products;
+}
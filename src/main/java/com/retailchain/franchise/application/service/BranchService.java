@@ -4,13 +4,16 @@ import com.retailchain.franchise.domain.exception.ResourceNotFoundException;
 import com.retailchain.franchise.domain.model.Branch;
 import com.retailchain.franchise.domain.port.input.BranchUseCase;
 import com.retailchain.franchise.domain.port.output.BranchRepository;
+import com.retailchain.franchise.domain.port.output.CacheTagInvalidator;
 import com.retailchain.franchise.domain.port.output.FranchiseRepository;
+import com.retailchain.franchise.domain.port.output.WriteRateTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Slf4j
 @Service
@@ -19,6 +22,11 @@ public class BranchService implements BranchUseCase {
     
     private final BranchRepository branchRepository;
     private final FranchiseRepository franchiseRepository;
+    private final WriteRateTracker writeRateTracker;
+    private final CacheTagInvalidator cacheTagInvalidator;
+    
+    // Cache key of a branch, used to report its writes to the write-rate tracker
+    private static final String CACHE_KEY_PREFIX = "branch:";
     
     @Override
     public Mono<Branch> addBranchToFranchise(Long franchiseId, Branch branch) {
@@ -30,6 +38,8 @@ public class BranchService implements BranchUseCase {
                 branch.setUpdatedAt(LocalDateTime.now());
                 return branchRepository.save(branch);
             })
+            .flatMap(saved -> invalidateResponses(List.of(CacheTagInvalidator.franchiseTag(franchiseId)))
+                .thenReturn(saved))
             .doOnSuccess(saved -> log.info("Added branch {} to franchise {}", saved.getId(), franchiseId));
     }
     
@@ -40,15 +50,23 @@ public class BranchService implements BranchUseCase {
             .map(branch -> {
                 branch.setName(name);
                 branch.setUpdatedAt(LocalDateTime.now());
+                writeRateTracker.recordWrite(CACHE_KEY_PREFIX + id);
                 return branch;
             })
             .flatMap(branchRepository::update)
+            .flatMap(updated -> invalidateResponses(List.of(CacheTagInvalidator.franchiseTag(updated.getFranchiseId()),
+                    CacheTagInvalidator.branchTag(id)))
+                .thenReturn(updated))
             .doOnSuccess(updated -> log.info("Updated branch {} name to: {}", id, name));
     }
     
     @Override
-    public Flux<Branch> getBranchesByFranchiseId(Long franchiseId) {
-        return branchRepository.findByFranchiseId(franchiseId)
+    public Flux<Branch> getBranchesByFranchiseId(Long franchiseId, Long afterId, int limit) {
+        return Pagination.checkLimit(limit, Flux.defer(() -> branchRepository.findByFranchiseId(franchiseId, afterId, limit)))
             .doOnComplete(() -> log.debug("Retrieved branches for franchise: {}", franchiseId));
     }
+    
+    private Mono<Void> invalidateResponses(List<String> tags) {
+        return cacheTagInvalidator.isEnabled() ? cacheTagInvalidator.invalidate(tags) : Mono.empty();
+    }
 }
\ No newline at end of file
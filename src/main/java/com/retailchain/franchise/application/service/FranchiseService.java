@@ -1,10 +1,15 @@
 package com.retailchain.franchise.application.service;
 
+import com.retailchain.franchise.application.cache.CacheLoader;
+import com.retailchain.franchise.application.cache.CacheNamespaces;
+import com.retailchain.franchise.application.cache.CachePolicy;
 import com.retailchain.franchise.domain.exception.ResourceNotFoundException;
+import com.retailchain.franchise.domain.exception.ValidationException;
 import com.retailchain.franchise.domain.model.Franchise;
 import com.retailchain.franchise.domain.port.input.FranchiseUseCase;
-import com.retailchain.franchise.domain.port.output.CacheRepository;
+import com.retailchain.franchise.domain.port.output.CacheTagInvalidator;
 import com.retailchain.franchise.domain.port.output.FranchiseRepository;
+import com.retailchain.franchise.domain.port.output.WriteRateTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -12,6 +17,11 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -19,10 +29,16 @@ import java.time.LocalDateTime;
 public class FranchiseService implements FranchiseUseCase {
     
     private final FranchiseRepository franchiseRepository;
-    private final CacheRepository cacheRepository;
+    private final CacheLoader cacheLoader;
+    private final CacheNamespaces cacheNamespaces;
+    private final WriteRateTracker writeRateTracker;
+    private final CacheTagInvalidator cacheTagInvalidator;
     
     private static final String CACHE_KEY_PREFIX = "franchise:";
-    private static final Duration CACHE_TTL = Duration.ofMinutes(10);
+    // Refreshed in the background after 10 minutes, served while MySQL is unavailable for up to an hour;
+    // unknown ids are remembered for 30 seconds
+    private static final CachePolicy CACHE_POLICY = 
+        new CachePolicy(Duration.ofMinutes(10), Duration.ofHours(1), Duration.ofSeconds(2), Duration.ofSeconds(30));
     
     @Override
     public Mono<Franchise> createFranchise(Franchise franchise) {
@@ -31,7 +47,7 @@ public class FranchiseService implements FranchiseUseCase {
         
         return franchiseRepository.save(franchise)
             .doOnSuccess(saved -> log.info("Created franchise with id: {}", saved.getId()))
-            .flatMap(saved -> cacheRepository.set(CACHE_KEY_PREFIX + saved.getId(), saved, CACHE_TTL)
+            .flatMap(saved -> cacheLoader.put(CACHE_KEY_PREFIX + saved.getId(), saved, CACHE_POLICY)
                 .thenReturn(saved));
     }
     
@@ -42,30 +58,72 @@ public class FranchiseService implements FranchiseUseCase {
             .map(franchise -> {
                 franchise.setName(name);
                 franchise.setUpdatedAt(LocalDateTime.now());
+                writeRateTracker.recordWrite(CACHE_KEY_PREFIX + id);
                 return franchise;
             })
             .flatMap(franchiseRepository::update)
             .doOnSuccess(updated -> log.info("Updated franchise {} name to: {}", id, name))
-            .flatMap(updated -> cacheRepository.delete(CACHE_KEY_PREFIX + id)
-                .then(cacheRepository.set(CACHE_KEY_PREFIX + id, updated, CACHE_TTL))
+            .flatMap(updated -> cacheLoader.put(CACHE_KEY_PREFIX + id, updated, CACHE_POLICY)
+                .then(invalidateResponses(id))
                 .thenReturn(updated));
     }
     
     @Override
     public Mono<Franchise> getFranchiseById(Long id) {
-        return cacheRepository.get(CACHE_KEY_PREFIX + id, Franchise.class)
-            .doOnNext(cached -> log.debug("Cache hit for franchise: {}", id))
-            .switchIfEmpty(
-                franchiseRepository.findById(id)
-                    .switchIfEmpty(Mono.error(new ResourceNotFoundException("Franchise", id)))
-                    .flatMap(franchise -> cacheRepository.set(CACHE_KEY_PREFIX + id, franchise, CACHE_TTL)
-                        .thenReturn(franchise))
-            );
+        return cacheLoader.get(CACHE_KEY_PREFIX + id, Franchise.class, CACHE_POLICY,
+                () -> franchiseRepository.findById(id))
+            .switchIfEmpty(Mono.error(new ResourceNotFoundException("Franchise", id)));
     }
     
     @Override
-    public Flux<Franchise> getAllFranchises() {
-        return franchiseRepository.findAll()
-            .doOnComplete(() -> log.debug("Retrieved all franchises"));
+    public Flux<Franchise> getFranchisesByIds(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > Pagination.MAX_LIMIT) {
+            return Flux.error(new ValidationException(
+                String.format("ids must contain between 1 and %d values", Pagination.MAX_LIMIT)));
+        }
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        List<String> keys = distinctIds.stream().map(id -> CACHE_KEY_PREFIX + id).toList();
+        
+        // One MGET for all ids, one query for the misses and one pipelined write back
+        return cacheLoader.getAll(keys, Franchise.class)
+            .flatMapMany(cached -> {
+                List<Long> missing = distinctIds.stream()
+                    .filter(id -> !cached.containsKey(CACHE_KEY_PREFIX + id))
+                    .toList();
+                Mono<Map<Long, Franchise>> loaded = missing.isEmpty()
+                    ? Mono.just(Map.of())
+                    : franchiseRepository.findAllById(missing)
+                        .collectMap(Franchise::getId)
+                        .flatMap(found -> cacheLoader.admitAll(found.values().stream()
+                                .collect(Collectors.toMap(franchise -> CACHE_KEY_PREFIX + franchise.getId(),
+                                    Function.identity())), CACHE_POLICY)
+                            .thenReturn(found));
+                return loaded.flatMapIterable(found -> distinctIds.stream()
+                    .map(id -> cached.getOrDefault(CACHE_KEY_PREFIX + id, found.get(id)))
+                    .filter(Objects::nonNull)
+                    .toList());
+            })
+            .doOnComplete(() -> log.debug("Resolved {} franchises by id", distinctIds.size()));
+    }
+    
+    @Override
+    public Mono<Void> invalidateFranchiseCache(Long id) {
+        // The record is a single key; everything else cached for the franchise lives in its namespace
+        return cacheNamespaces.invalidate(CacheNamespaces.franchise(id))
+            .then(cacheLoader.evict(CACHE_KEY_PREFIX + id))
+            .then(invalidateResponses(id))
+            .doOnSuccess(v -> log.info("Invalidated cached data of franchise {}", id));
+    }
+    
+    @Override
+    public Flux<Franchise> getAllFranchises(Long afterId, int limit) {
+        return Pagination.checkLimit(limit, Flux.defer(() -> franchiseRepository.findAll(afterId, limit)))
+            .doOnComplete(() -> log.debug("Retrieved franchises after id: {}", afterId));
+    }
+    
+    private Mono<Void> invalidateResponses(Long franchiseId) {
+        return cacheTagInvalidator.isEnabled()
+            ? cacheTagInvalidator.invalidate(List.of(CacheTagInvalidator.franchiseTag(franchiseId)))
+            : Mono.empty();
     }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.retailchain.franchise.application.service;
+
+import com.retailchain.franchise.domain.exception.ValidationException;
+import reactor.core.publisher.Flux;
+
+final class Pagination {
+    
+    static final int MAX_LIMIT = 1000;
+    
+    private Pagination() {
+    }
+    
+    static <T> Flux<T> checkLimit(int limit, Flux<T> page) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return Flux.error(new ValidationException(
+                    String.format("limit must be between 1 and %d", MAX_LIMIT)));
+        }
+        return page;
+    }
+}
@@ -1,18 +1,35 @@
 package com.retailchain.franchise.application.service;
 
+import com.retailchain.franchise.application.dto.StockRankingDto;
 import com.retailchain.franchise.application.dto.StockReportDto;
+import com.retailchain.franchise.domain.exception.BusinessException;
 import com.retailchain.franchise.domain.exception.ResourceNotFoundException;
+import com.retailchain.franchise.domain.exception.ValidationException;
+import com.retailchain.franchise.domain.model.Branch;
+import com.retailchain.franchise.domain.model.Franchise;
 import com.retailchain.franchise.domain.model.Product;
+import com.retailchain.franchise.domain.model.RankedProduct;
+import com.retailchain.franchise.domain.model.StockUpdate;
+import com.retailchain.franchise.domain.model.StockUpdateResult;
 import com.retailchain.franchise.domain.port.input.ProductUseCase;
 import com.retailchain.franchise.domain.port.output.BranchRepository;
+import com.retailchain.franchise.domain.port.output.CacheTagInvalidator;
+import com.retailchain.franchise.domain.port.output.MaxStockIndex;
 import com.retailchain.franchise.domain.port.output.ProductRepository;
 import com.retailchain.franchise.domain.port.output.FranchiseRepository;
+import com.retailchain.franchise.domain.port.output.StockRankingIndex;
+import com.retailchain.franchise.domain.port.output.StockReportRepository;
+import com.retailchain.franchise.domain.port.output.StockWriteBuffer;
+import com.retailchain.franchise.domain.port.output.WriteRateTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
@@ -22,6 +39,20 @@ public class ProductService implements ProductUseCase {
     private final ProductRepository productRepository;
     private final BranchRepository branchRepository;
     private final FranchiseRepository franchiseRepository;
+    private final MaxStockIndex maxStockIndex;
+    private final StockReportRepository stockReportRepository;
+    private final StockWriteBuffer stockWriteBuffer;
+    private final WriteRateTracker writeRateTracker;
+    private final CacheTagInvalidator cacheTagInvalidator;
+    private final StockRankingIndex stockRankingIndex;
+    
+    // Cache key of a product, used to report its writes to the write-rate tracker
+    private static final String CACHE_KEY_PREFIX = "product:";
+    
+    private static final String ORDER_TOP = "top";
+    private static final String ORDER_BOTTOM = "bottom";
+    // Products per stock-ranking write on the batch paths, matching the default insert and update chunks
+    private static final int RANKING_BATCH_SIZE = 500;
     
     @Override
     public Mono<Product> addProductToBranch(Long branchId, Product product) {
@@ -31,32 +62,119 @@ public class ProductService implements ProductUseCase {
                 product.setBranchId(branchId);
                 product.setCreatedAt(LocalDateTime.now());
                 product.setUpdatedAt(LocalDateTime.now());
-                return productRepository.save(product);
+                return productRepository.save(product)
+                    .flatMap(saved -> rank(branch, List.of(saved)).then(invalidateResponses(branch)).thenReturn(saved));
             })
+            .doOnNext(maxStockIndex::put)
             .doOnSuccess(saved -> log.info("Added product {} to branch {}", saved.getId(), branchId));
     }
     
+    @Override
+    public Flux<Product> addProductsToBranch(Long branchId, Flux<Product> products) {
+        return branchRepository.findById(branchId)
+            .switchIfEmpty(Mono.error(new ResourceNotFoundException("Branch", branchId)))
+            .flatMapMany(branch -> productRepository.saveAll(products.map(product -> {
+                product.setBranchId(branchId);
+                product.setCreatedAt(LocalDateTime.now());
+                product.setUpdatedAt(LocalDateTime.now());
+                return product;
+            }))
+                .transform(saved -> stockRankingIndex.isEnabled()
+                    ? saved.buffer(RANKING_BATCH_SIZE).concatMap(batch -> rank(branch, batch).thenMany(Flux.fromIterable(batch)))
+                    : saved)
+                .concatWith(invalidateResponses(branch).then(Mono.<Product>empty())))
+            .doOnNext(maxStockIndex::put)
+            .doOnComplete(() -> log.info("Added product batch to branch {}", branchId));
+    }
+    
     @Override
     public Mono<Void> deleteProductFromBranch(Long productId) {
         return productRepository.findById(productId)
             .switchIfEmpty(Mono.error(new ResourceNotFoundException("Product", productId)))
-            .flatMap(product -> productRepository.deleteById(productId))
+            .flatMap(product -> productRepository.deleteById(productId)
+                .doOnSuccess(v -> maxStockIndex.remove(productId))
+                .then(stockWriteBuffer.isEnabled() ? stockWriteBuffer.discard(productId) : Mono.<Void>empty())
+                .then(stockRankingIndex.isEnabled() ? stockRankingIndex.remove(productId) : Mono.<Void>empty())
+                .then(invalidateResponses(product.getBranchId())))
             .doOnSuccess(v -> log.info("Deleted product: {}", productId));
     }
     
     @Override
     public Mono<Product> updateProductStock(Long productId, Integer newStock) {
-        return productRepository.findById(productId)
+        Mono<Product> product = productRepository.findById(productId)
             .switchIfEmpty(Mono.error(new ResourceNotFoundException("Product", productId)))
-            .map(product -> {
-                product.setStock(newStock);
-                product.setUpdatedAt(LocalDateTime.now());
-                return product;
-            })
+            .map(existing -> {
+                existing.setStock(newStock);
+                existing.setUpdatedAt(LocalDateTime.now());
+                writeRateTracker.recordWrite(CACHE_KEY_PREFIX + productId);
+                return existing;
+            });
+        if (stockWriteBuffer.isEnabled()) {
+            // Acknowledged once buffered; the row is written by the next flush
+            // Cached responses are dropped by the buffer once the row has been written
+            return product
+                .flatMap(updated -> responseTags(updated.getBranchId())
+                    .doOnNext(tags -> stockWriteBuffer.submit(productId, newStock, tags))
+                    .thenReturn(updated))
+                .doOnNext(updated -> maxStockIndex.updateStock(productId, newStock))
+                .flatMap(updated -> rankStock(productId, newStock).thenReturn(updated))
+                .doOnSuccess(updated -> log.debug("Buffered product {} stock: {}", productId, newStock));
+        }
+        return product
             .flatMap(productRepository::update)
+            .doOnNext(updated -> maxStockIndex.updateStock(productId, updated.getStock()))
+            .flatMap(updated -> rankStock(productId, updated.getStock()).thenReturn(updated))
+            .flatMap(updated -> invalidateResponses(updated.getBranchId()).thenReturn(updated))
             .doOnSuccess(updated -> log.info("Updated product {} stock to: {}", productId, newStock));
     }
     
+    @Override
+    public Flux<StockUpdateResult> updateProductStocks(Flux<StockUpdate> updates) {
+        // A buffered value is older than the bulk one and must not overwrite it later
+        Flux<StockUpdate> unbuffered = stockWriteBuffer.isEnabled()
+            ? updates.concatMap(update -> stockWriteBuffer.discard(update.getProductId()).thenReturn(update))
+            : updates;
+        return productRepository.updateStocks(unbuffered)
+            .doOnNext(result -> {
+                if (result.getStatus() == StockUpdateResult.Status.UPDATED) {
+                    writeRateTracker.recordWrite(CACHE_KEY_PREFIX + result.getProductId());
+                    maxStockIndex.updateStock(result.getProductId(), result.getStock());
+                }
+            })
+            .transform(results -> stockRankingIndex.isEnabled()
+                ? results.buffer(RANKING_BATCH_SIZE).concatMap(batch -> rankStocks(batch).thenMany(Flux.fromIterable(batch)))
+                : results)
+            // Results do not carry the branch, so a bulk update drops every stored response
+            .concatWith(Mono.defer(() -> cacheTagInvalidator.isEnabled()
+                ? cacheTagInvalidator.invalidateAll()
+                : Mono.<Void>empty()).then(Mono.<StockUpdateResult>empty()))
+            .doOnComplete(() -> log.info("Applied bulk stock update"));
+    }
+    
+    @Override
+    public Mono<Integer> adjustProductStock(Long productId, int delta) {
+        // A buffered absolute value goes first so the flush cannot undo the delta;
+        // the product is only read when the conditional update matched no row
+        Mono<Void> pendingWrite = stockWriteBuffer.isEnabled() ? stockWriteBuffer.flush(productId) : Mono.empty();
+        return pendingWrite.then(Mono.defer(() -> productRepository.adjustStock(productId, delta)))
+            .switchIfEmpty(Mono.defer(() -> productRepository.findById(productId)
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Product", productId)))
+                .flatMap(product -> Mono.<Integer>error(new BusinessException("INSUFFICIENT_STOCK",
+                    String.format("Product %d has %d units in stock, cannot adjust by %d",
+                        productId, product.getStock(), delta))))))
+            .doOnNext(stock -> {
+                writeRateTracker.recordWrite(CACHE_KEY_PREFIX + productId);
+                maxStockIndex.updateStock(productId, stock);
+            })
+            .flatMap(stock -> rankStock(productId, stock).thenReturn(stock))
+            .flatMap(stock -> cacheTagInvalidator.isEnabled()
+                ? productRepository.findById(productId)
+                    .flatMap(product -> invalidateResponses(product.getBranchId()))
+                    .thenReturn(stock)
+                : Mono.just(stock))
+            .doOnSuccess(stock -> log.info("Adjusted product {} stock by {} to: {}", productId, delta, stock));
+    }
+    
     @Override
     public Mono<Product> updateProductName(Long productId, String name) {
         return productRepository.findById(productId)
@@ -64,37 +182,168 @@ public class ProductService implements ProductUseCase {
             .map(product -> {
                 product.setName(name);
                 product.setUpdatedAt(LocalDateTime.now());
+                writeRateTracker.recordWrite(CACHE_KEY_PREFIX + productId);
                 return product;
             })
             .flatMap(productRepository::update)
+            .doOnNext(maxStockIndex::put)
+            .flatMap(updated -> invalidateResponses(updated.getBranchId()).thenReturn(updated))
             .doOnSuccess(updated -> log.info("Updated product {} name to: {}", productId, name));
     }
     
+    @Override
+    public Flux<Product> getProductsByBranchId(Long branchId, Long afterId, int limit) {
+        return Pagination.checkLimit(limit, Flux.defer(() -> productRepository.findByBranchId(branchId, afterId, limit)))
+            .doOnComplete(() -> log.debug("Retrieved products for branch: {}", branchId));
+    }
+    
     @Override
     public Flux<StockReportDto> getMaxStockProductsByFranchise(Long franchiseId) {
+        if (maxStockIndex.isReady()) {
+            return getMaxStockProductsFromIndex(franchiseId);
+        }
+        return stockReportRepository.findMaxStockProductsByFranchise(franchiseId)
+            .switchIfEmpty(Flux.defer(() -> franchiseRepository.findById(franchiseId)
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Franchise", franchiseId)))
+                .thenMany(Flux.<StockReportDto>empty())))
+            .doOnComplete(() -> log.debug("Generated stock report for franchise: {}", franchiseId));
+    }
+    
+    private Flux<StockReportDto> getMaxStockProductsFromIndex(Long franchiseId) {
         return franchiseRepository.findById(franchiseId)
             .switchIfEmpty(Mono.error(new ResourceNotFoundException("Franchise", franchiseId)))
             .flatMapMany(franchise -> 
                 branchRepository.findByFranchiseId(franchiseId)
-                    .map(branch -> branch.getId())
-                    .collectList()
-                    .flatMapMany(branchIds -> 
-                        productRepository.findProductsWithMaxStockByBranches(Flux.fromIterable(branchIds))
-                            .flatMap(product -> 
-                                branchRepository.findById(product.getBranchId())
-                                    .map(branch -> StockReportDto.builder()
-                                        .productId(product.getId())
-                                        .productName(product.getName())
-                                        .stock(product.getStock())
-                                        .branchId(branch.getId())
-                                        .branchName(branch.getName())
-                                        .franchiseId(franchise.getId())
-                                        .franchiseName(franchise.getName())
-                                        .build()
-                                    )
-                            )
-                    )
+                    .concatMapIterable(branch -> maxStockIndex.findMaxStockProducts(branch.getId()).stream()
+                        .map(product -> toStockReport(product, branch, franchise))
+                        .toList())
             )
-            .doOnComplete(() -> log.debug("Generated stock report for franchise: {}", franchiseId));
+            .doOnComplete(() -> log.debug("Generated stock report from index for franchise: {}", franchiseId));
+    }
+    
+    @Override
+    public Flux<StockRankingDto> getStockRanking(Long franchiseId, Long branchId, int k, String order) {
+        if (k < 1 || k > Pagination.MAX_LIMIT) {
+            return Flux.error(new ValidationException(
+                String.format("k must be between 1 and %d", Pagination.MAX_LIMIT)));
+        }
+        if (!ORDER_TOP.equals(order) && !ORDER_BOTTOM.equals(order)) {
+            return Flux.error(new ValidationException("order must be 'top' or 'bottom'"));
+        }
+        return checkRankingScope(franchiseId, branchId)
+            .thenMany(Flux.defer(() -> stockRankingIndex.findRanked(franchiseId, branchId, k, ORDER_BOTTOM.equals(order))))
+            .collectList()
+            .flatMapMany(this::toStockRankings)
+            .doOnComplete(() -> log.debug("Ranked {} products by stock for franchise: {}", k, franchiseId));
+    }
+    
+    @Override
+    public Mono<StockRankingDto> getProductStockRank(Long franchiseId, Long productId) {
+        return checkRankingScope(franchiseId, null)
+            .then(Mono.defer(() -> stockRankingIndex.findRank(franchiseId, productId)))
+            .flatMap(ranked -> productRepository.findById(productId).map(product -> toStockRanking(ranked, product)))
+            .switchIfEmpty(Mono.error(new ResourceNotFoundException("Product", productId)));
+    }
+    
+    @Override
+    public Mono<Long> rebuildStockRanking(Long franchiseId) {
+        return checkRankingScope(franchiseId, null)
+            .then(Mono.defer(() -> branchRepository.findByFranchiseId(franchiseId).map(Branch::getId).collectList()))
+            .flatMap(branchIds -> stockRankingIndex.rebuild(franchiseId, branchIds, Flux.fromIterable(branchIds)
+                .concatMap(productRepository::findByBranchId)))
+            .doOnSuccess(count -> log.info("Rebuilt stock ranking of franchise {} from {} products", franchiseId, count));
+    }
+    
+    private Mono<Void> checkRankingScope(Long franchiseId, Long branchId) {
+        if (!stockRankingIndex.isEnabled()) {
+            return Mono.error(new BusinessException("STOCK_RANKING_DISABLED", "Stock ranking is not enabled"));
+        }
+        Mono<Void> franchise = franchiseRepository.findById(franchiseId)
+            .switchIfEmpty(Mono.error(new ResourceNotFoundException("Franchise", franchiseId)))
+            .then();
+        if (branchId == null) {
+            return franchise;
+        }
+        return franchise.then(branchRepository.findById(branchId)
+            .filter(branch -> franchiseId.equals(branch.getFranchiseId()))
+            .switchIfEmpty(Mono.error(new ResourceNotFoundException("Branch", branchId)))
+            .then());
+    }
+    
+    // Names come from one query; products deleted since they were ranked are left out
+    private Flux<StockRankingDto> toStockRankings(List<RankedProduct> ranked) {
+        if (ranked.isEmpty()) {
+            return Flux.empty();
+        }
+        return productRepository.findAllById(ranked.stream().map(RankedProduct::getProductId).toList())
+            .collectMap(Product::getId)
+            .flatMapIterable(products -> ranked.stream()
+                .filter(entry -> products.containsKey(entry.getProductId()))
+                .map(entry -> toStockRanking(entry, products.get(entry.getProductId())))
+                .toList());
+    }
+    
+    private StockRankingDto toStockRanking(RankedProduct ranked, Product product) {
+        return StockRankingDto.builder()
+            .rank(ranked.getRank())
+            .productId(product.getId())
+            .productName(product.getName())
+            .stock(ranked.getStock())
+            .branchId(product.getBranchId())
+            .build();
+    }
+    
+    private Mono<Void> rank(Branch branch, List<Product> products) {
+        return stockRankingIndex.isEnabled() ? stockRankingIndex.put(branch.getFranchiseId(), products) : Mono.empty();
+    }
+    
+    private Mono<Void> rankStock(Long productId, int stock) {
+        return stockRankingIndex.isEnabled() ? stockRankingIndex.updateStocks(Map.of(productId, stock)) : Mono.empty();
+    }
+    
+    private Mono<Void> rankStocks(List<StockUpdateResult> results) {
+        Map<Long, Integer> stocks = new HashMap<>();
+        results.stream()
+            .filter(result -> result.getStatus() == StockUpdateResult.Status.UPDATED)
+            .forEach(result -> stocks.put(result.getProductId(), result.getStock()));
+        return stockRankingIndex.updateStocks(stocks);
+    }
+    
+    // Product writes change the branch's product list and the franchise's stock report
+    private Mono<Void> invalidateResponses(Long branchId) {
+        if (!cacheTagInvalidator.isEnabled()) {
+            return Mono.empty();
+        }
+        return responseTags(branchId).flatMap(cacheTagInvalidator::invalidate);
+    }
+    
+    private Mono<List<String>> responseTags(Long branchId) {
+        if (!cacheTagInvalidator.isEnabled()) {
+            return Mono.just(List.of());
+        }
+        return branchRepository.findById(branchId)
+            .map(this::tagsOf)
+            .defaultIfEmpty(List.of(CacheTagInvalidator.branchTag(branchId)));
+    }
+    
+    private Mono<Void> invalidateResponses(Branch branch) {
+        return cacheTagInvalidator.isEnabled() ? cacheTagInvalidator.invalidate(tagsOf(branch)) : Mono.empty();
+    }
+    
+    private List<String> tagsOf(Branch branch) {
+        return List.of(CacheTagInvalidator.franchiseTag(branch.getFranchiseId()),
+            CacheTagInvalidator.branchTag(branch.getId()));
+    }
+    
+    private StockReportDto toStockReport(Product product, Branch branch, Franchise franchise) {
+        return StockReportDto.builder()
+            .productId(product.getId())
+            .productName(product.getName())
+            .stock(product.getStock())
+            .branchId(branch.getId())
+            .branchName(branch.getName())
+            .franchiseId(franchise.getId())
+            .franchiseName(franchise.getName())
+            .build();
     }
 }
\ No newline at end of file
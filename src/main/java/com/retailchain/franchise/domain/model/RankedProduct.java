@@ -0,0 +1,17 @@
+package com.retailchain.franchise.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankedProduct {
+    private Long productId;
+    private Integer stock;
+    // 1 is the product with the most stock
+    private Long rank;
+}
@@ -0,0 +1,15 @@
+package com.retailchain.franchise.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockUpdate {
+    private Long productId;
+    private Integer stock;
+}
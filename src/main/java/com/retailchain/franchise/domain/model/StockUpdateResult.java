@@ -0,0 +1,21 @@
+package com.retailchain.franchise.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockUpdateResult {
+    private Long productId;
+    private Integer stock;
+    private Status status;
+    
+    public enum Status {
+        UPDATED,
+        NOT_FOUND
+    }
+}
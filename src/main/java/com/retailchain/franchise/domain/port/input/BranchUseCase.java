@@ -7,5 +7,5 @@ import reactor.core.publisher.Mono;
 public interface BranchUseCase {
     Mono<Branch> addBranchToFranchise(Long franchiseId, Branch branch);
     Mono<Branch> updateBranchName(Long id, String name);
-    Flux<Branch> getBranchesByFranchiseId(Long franchiseId);
+    Flux<Branch> getBranchesByFranchiseId(Long franchiseId, Long afterId, int limit);
 }
\ No newline at end of file
@@ -3,10 +3,13 @@ package com.retailchain.franchise.domain.port.input;
 import com.retailchain.franchise.domain.model.Franchise;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import java.util.List;
 
 public interface FranchiseUseCase {
     Mono<Franchise> createFranchise(Franchise franchise);
     Mono<Franchise> updateFranchiseName(Long id, String name);
     Mono<Franchise> getFranchiseById(Long id);
-    Flux<Franchise> getAllFranchises();
+    Flux<Franchise> getFranchisesByIds(List<Long> ids);
+    Flux<Franchise> getAllFranchises(Long afterId, int limit);
+    Mono<Void> invalidateFranchiseCache(Long id);
 }
\ No newline at end of file
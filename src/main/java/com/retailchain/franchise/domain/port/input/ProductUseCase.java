@@ -1,14 +1,24 @@
 package com.retailchain.franchise.domain.port.input;
 
+import com.retailchain.franchise.application.dto.StockRankingDto;
 import com.retailchain.franchise.application.dto.StockReportDto;
 import com.retailchain.franchise.domain.model.Product;
+import com.retailchain.franchise.domain.model.StockUpdate;
+import com.retailchain.franchise.domain.model.StockUpdateResult;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface ProductUseCase {
     Mono<Product> addProductToBranch(Long branchId, Product product);
+    Flux<Product> addProductsToBranch(Long branchId, Flux<Product> products);
     Mono<Void> deleteProductFromBranch(Long productId);
     Mono<Product> updateProductStock(Long productId, Integer newStock);
+    Flux<StockUpdateResult> updateProductStocks(Flux<StockUpdate> updates);
+    Mono<Integer> adjustProductStock(Long productId, int delta);
     Mono<Product> updateProductName(Long productId, String name);
+    Flux<Product> getProductsByBranchId(Long branchId, Long afterId, int limit);
     Flux<StockReportDto> getMaxStockProductsByFranchise(Long franchiseId);
+    Flux<StockRankingDto> getStockRanking(Long franchiseId, Long branchId, int k, String order);
+    Mono<StockRankingDto> getProductStockRank(Long franchiseId, Long productId);
+    Mono<Long> rebuildStockRanking(Long franchiseId);
 }
\ No newline at end of file
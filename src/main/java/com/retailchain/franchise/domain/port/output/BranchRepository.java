@@ -8,5 +8,6 @@ public interface BranchRepository {
     Mono<Branch> save(Branch branch);
     Mono<Branch> findById(Long id);
     Flux<Branch> findByFranchiseId(Long franchiseId);
+    Flux<Branch> findByFranchiseId(Long franchiseId, Long afterId, int limit);
     Mono<Branch> update(Branch branch);
 }
\ No newline at end of file
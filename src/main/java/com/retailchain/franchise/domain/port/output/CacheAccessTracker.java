@@ -0,0 +1,11 @@
+package com.retailchain.franchise.domain.port.output;
+
+import java.util.Map;
+
+public interface CacheAccessTracker {
+    void record(String key);
+    // Whether a missed key is read often enough to be worth storing
+    boolean shouldAdmit(String key);
+    // Estimated access counts of the most frequently read keys, hottest first
+    Map<String, Integer> hottestKeys(int limit);
+}
@@ -2,9 +2,23 @@ package com.retailchain.franchise.domain.port.output;
 
 import reactor.core.publisher.Mono;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
 
 public interface CacheRepository {
     <T> Mono<T> get(String key, Class<T> type);
     <T> Mono<Void> set(String key, T value, Duration ttl);
+    // True when the key was absent and is now set; empty when the cache could not be asked
+    <T> Mono<Boolean> setIfAbsent(String key, T value, Duration ttl);
     Mono<Void> delete(String key);
+    // Deletes the key only while it still holds the given value; true when it was deleted
+    <T> Mono<Boolean> deleteIfEquals(String key, T expected);
+    // Resets the TTL only while the key still holds the given value; true when it was reset
+    <T> Mono<Boolean> expireIfEquals(String key, T expected, Duration ttl);
+    // Keys that are not cached are left out of the returned map
+    <T> Mono<Map<String, T>> getAll(Collection<String> keys, Class<T> type);
+    <T> Mono<Void> setAll(Map<String, T> values, Duration ttl);
+    Mono<Void> deleteAll(Collection<String> keys);
+    // Atomic counter without expiry; a delta of 0 reads the current value (0 when absent)
+    Mono<Long> increment(String key, long delta);
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.retailchain.franchise.domain.port.output;
+
+import reactor.core.publisher.Mono;
+import java.util.Collection;
+
+public interface CacheTagInvalidator {
+    
+    static String franchiseTag(Long franchiseId) {
+        return "franchise:" + franchiseId;
+    }
+    
+    static String branchTag(Long branchId) {
+        return "branch:" + branchId;
+    }
+    
+    boolean isEnabled();
+    // Drops every cached response carrying one of the tags, on all nodes
+    Mono<Void> invalidate(Collection<String> tags);
+    Mono<Void> invalidateAll();
+}
@@ -3,10 +3,12 @@ package com.retailchain.franchise.domain.port.output;
 import com.retailchain.franchise.domain.model.Franchise;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import java.util.Collection;
 
 public interface FranchiseRepository {
     Mono<Franchise> save(Franchise franchise);
     Mono<Franchise> findById(Long id);
-    Flux<Franchise> findAll();
+    Flux<Franchise> findAllById(Collection<Long> ids);
+    Flux<Franchise> findAll(Long afterId, int limit);
     Mono<Franchise> update(Franchise franchise);
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.retailchain.franchise.domain.port.output;
+
+import com.retailchain.franchise.domain.model.Product;
+import java.util.List;
+
+public interface MaxStockIndex {
+    boolean isReady();
+    void put(Product product);
+    void updateStock(Long productId, int stock);
+    void remove(Long productId);
+    List<Product> findMaxStockProducts(Long branchId);
+}
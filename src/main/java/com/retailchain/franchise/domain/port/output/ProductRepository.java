@@ -1,14 +1,22 @@
 package com.retailchain.franchise.domain.port.output;
 
 import com.retailchain.franchise.domain.model.Product;
+import com.retailchain.franchise.domain.model.StockUpdate;
+import com.retailchain.franchise.domain.model.StockUpdateResult;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import java.util.Collection;
 
 public interface ProductRepository {
     Mono<Product> save(Product product);
+    Flux<Product> saveAll(Flux<Product> products);
     Mono<Product> findById(Long id);
+    Flux<Product> findAllById(Collection<Long> ids);
     Flux<Product> findByBranchId(Long branchId);
+    Flux<Product> findByBranchId(Long branchId, Long afterId, int limit);
+    Flux<Product> findAll();
     Mono<Product> update(Product product);
+    Flux<StockUpdateResult> updateStocks(Flux<StockUpdate> updates);
+    Mono<Integer> adjustStock(Long productId, int delta);
     Mono<Void> deleteById(Long id);
-    Flux<Product> findProductsWithMaxStockByBranches(Flux<Long> branchIds);
 }
\ No newline at end of file
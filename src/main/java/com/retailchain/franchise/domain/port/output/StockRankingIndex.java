@@ -0,0 +1,21 @@
+package com.retailchain.franchise.domain.port.output;
+
+import com.retailchain.franchise.domain.model.Product;
+import com.retailchain.franchise.domain.model.RankedProduct;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.Collection;
+import java.util.Map;
+
+public interface StockRankingIndex {
+    boolean isEnabled();
+    Mono<Void> put(Long franchiseId, Collection<Product> products);
+    // Keyed by product id; products that were never indexed are skipped
+    Mono<Void> updateStocks(Map<Long, Integer> stocks);
+    Mono<Void> remove(Long productId);
+    // branchId null ranks the whole franchise; ascending returns the k products with the least stock
+    Flux<RankedProduct> findRanked(Long franchiseId, Long branchId, int k, boolean ascending);
+    Mono<RankedProduct> findRank(Long franchiseId, Long productId);
+    // branchIds are all branches of the franchise, so sets of branches without products are dropped
+    Mono<Long> rebuild(Long franchiseId, Collection<Long> branchIds, Flux<Product> products);
+}
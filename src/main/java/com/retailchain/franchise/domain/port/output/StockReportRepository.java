@@ -0,0 +1,8 @@
+package com.retailchain.franchise.domain.port.output;
+
+import com.retailchain.franchise.application.dto.StockReportDto;
+import reactor.core.publisher.Flux;
+
+public interface StockReportRepository {
+    Flux<StockReportDto> findMaxStockProductsByFranchise(Long franchiseId);
+}
@@ -0,0 +1,13 @@
+package com.retailchain.franchise.domain.port.output;
+
+import reactor.core.publisher.Mono;
+import java.util.Collection;
+
+public interface StockWriteBuffer {
+    boolean isEnabled();
+    // cacheTags are invalidated once the value has been written, not when it is submitted
+    void submit(Long productId, int stock, Collection<String> cacheTags);
+    // Both complete only once no batch still being written can overwrite the caller's next write
+    Mono<Void> discard(Long productId);
+    Mono<Void> flush(Long productId);
+}
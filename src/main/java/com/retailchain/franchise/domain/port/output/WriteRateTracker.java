@@ -0,0 +1,10 @@
+package com.retailchain.franchise.domain.port.output;
+
+import java.time.Duration;
+
+public interface WriteRateTracker {
+    // Keys are the cache keys of the written entity, e.g. "product:42"
+    void recordWrite(String key);
+    // TTL for a cache entry of the key, derived from how often it is written
+    Duration ttlFor(String key, Duration defaultTtl);
+}
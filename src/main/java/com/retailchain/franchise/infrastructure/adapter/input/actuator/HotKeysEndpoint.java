@@ -0,0 +1,27 @@
+package com.retailchain.franchise.infrastructure.adapter.input.actuator;
+
+import com.retailchain.franchise.domain.port.output.CacheAccessTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+
+/**
+ * Most frequently read cache keys with their estimated access counts (/actuator/hotkeys?limit=).
+ */
+@Component
+@Endpoint(id = "hotkeys")
+@RequiredArgsConstructor
+public class HotKeysEndpoint {
+    
+    private static final int DEFAULT_LIMIT = 20;
+    
+    private final CacheAccessTracker accessTracker;
+    
+    @ReadOperation
+    public Map<String, Integer> hotKeys(@Nullable Integer limit) {
+        return accessTracker.hottestKeys(limit != null && limit > 0 ? limit : DEFAULT_LIMIT);
+    }
+}
@@ -8,6 +8,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -43,10 +44,15 @@ public class BranchController {
                 .map(this::toDto);
     }
     
-    @GetMapping("/franchises/{franchiseId}/branches")
-    public Flux<BranchDto> getBranchesByFranchise(@PathVariable Long franchiseId) {
+    @GetMapping(value = "/franchises/{franchiseId}/branches",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+                    MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<BranchDto> getBranchesByFranchise(
+            @PathVariable Long franchiseId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
         log.info("Getting branches for franchise: {}", franchiseId);
-        return branchUseCase.getBranchesByFranchiseId(franchiseId)
+        return branchUseCase.getBranchesByFranchiseId(franchiseId, after, limit)
                 .map(this::toDto);
     }
     
@@ -8,9 +8,11 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -41,6 +43,15 @@ public class FranchiseController {
                 .map(this::toDto);
     }
     
+    @GetMapping(value = "/lookup",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+                    MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<FranchiseDto> getFranchisesByIds(@RequestParam List<Long> ids) {
+        log.info("Looking up {} franchises", ids.size());
+        return franchiseUseCase.getFranchisesByIds(ids)
+                .map(this::toDto);
+    }
+    
     @GetMapping("/{id}")
     public Mono<FranchiseDto> getFranchise(@PathVariable Long id) {
         log.info("Getting franchise: {}", id);
@@ -48,10 +59,20 @@ public class FranchiseController {
                 .map(this::toDto);
     }
     
-    @GetMapping
-    public Flux<FranchiseDto> getAllFranchises() {
-        log.info("Getting all franchises");
-        return franchiseUseCase.getAllFranchises()
+    @DeleteMapping("/{id}/cache")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> invalidateFranchiseCache(@PathVariable Long id) {
+        log.info("Invalidating cache of franchise: {}", id);
+        return franchiseUseCase.invalidateFranchiseCache(id);
+    }
+    
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<FranchiseDto> getAllFranchises(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("Getting franchises after: {} limit: {}", after, limit);
+        return franchiseUseCase.getAllFranchises(after, limit)
                 .map(this::toDto);
     }
     
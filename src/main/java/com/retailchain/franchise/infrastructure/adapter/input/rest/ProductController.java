@@ -1,15 +1,23 @@
 package com.retailchain.franchise.infrastructure.adapter.input.rest;
 
+import com.retailchain.franchise.application.dto.AdjustStockRequest;
 import com.retailchain.franchise.application.dto.ProductDto;
+import com.retailchain.franchise.application.dto.StockAdjustmentDto;
+import com.retailchain.franchise.application.dto.StockRankingDto;
+import com.retailchain.franchise.application.dto.StockRankingRebuildDto;
 import com.retailchain.franchise.application.dto.StockReportDto;
+import com.retailchain.franchise.application.dto.StockUpdateItemRequest;
+import com.retailchain.franchise.application.dto.StockUpdateResultDto;
 import com.retailchain.franchise.application.dto.UpdateNameRequest;
 import com.retailchain.franchise.application.dto.UpdateStockRequest;
 import com.retailchain.franchise.domain.model.Product;
+import com.retailchain.franchise.domain.model.StockUpdate;
 import com.retailchain.franchise.domain.port.input.ProductUseCase;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -37,6 +45,24 @@ public class ProductController {
                 .map(this::toDto);
     }
     
+    @PostMapping(value = "/branches/{branchId}/products/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+                    MediaType.TEXT_EVENT_STREAM_VALUE})
+    @ResponseStatus(HttpStatus.CREATED)
+    public Flux<ProductDto> addProducts(
+            @PathVariable Long branchId,
+            @Valid @RequestBody Flux<ProductDto> productDtos) {
+        log.info("Adding product batch to branch: {}", branchId);
+        Flux<Product> products = productDtos.map(productDto -> Product.builder()
+                .name(productDto.getName())
+                .stock(productDto.getStock())
+                .build());
+        
+        return productUseCase.addProductsToBranch(branchId, products)
+                .map(this::toDto);
+    }
+    
     @DeleteMapping("/products/{productId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public Mono<Void> deleteProduct(@PathVariable Long productId) {
@@ -53,6 +79,39 @@ public class ProductController {
                 .map(this::toDto);
     }
     
+    @PostMapping("/products/{productId}/stock/adjust")
+    public Mono<StockAdjustmentDto> adjustProductStock(
+            @PathVariable Long productId,
+            @Valid @RequestBody AdjustStockRequest request) {
+        log.info("Adjusting product {} stock by: {}", productId, request.getDelta());
+        return productUseCase.adjustProductStock(productId, request.getDelta())
+                .map(stock -> StockAdjustmentDto.builder()
+                        .productId(productId)
+                        .delta(request.getDelta())
+                        .stock(stock)
+                        .build());
+    }
+    
+    @PatchMapping(value = "/products/stock",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+                    MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<StockUpdateResultDto> updateProductStocks(
+            @Valid @RequestBody Flux<StockUpdateItemRequest> requests) {
+        log.info("Applying bulk stock update");
+        Flux<StockUpdate> updates = requests.map(request -> StockUpdate.builder()
+                .productId(request.getProductId())
+                .stock(request.getStock())
+                .build());
+        
+        return productUseCase.updateProductStocks(updates)
+                .map(result -> StockUpdateResultDto.builder()
+                        .productId(result.getProductId())
+                        .stock(result.getStock())
+                        .status(result.getStatus().name())
+                        .build());
+    }
+    
     @PatchMapping("/products/{productId}/name")
     public Mono<ProductDto> updateProductName(
             @PathVariable Long productId,
@@ -62,12 +121,56 @@ public class ProductController {
                 .map(this::toDto);
     }
     
-    @GetMapping("/franchises/{franchiseId}/max-stock-products")
+    @GetMapping(value = "/branches/{branchId}/products",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+                    MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<ProductDto> getProductsByBranch(
+            @PathVariable Long branchId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("Getting products for branch: {}", branchId);
+        return productUseCase.getProductsByBranchId(branchId, after, limit)
+                .map(this::toDto);
+    }
+    
+    @GetMapping(value = "/franchises/{franchiseId}/max-stock-products",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+                    MediaType.TEXT_EVENT_STREAM_VALUE})
     public Flux<StockReportDto> getMaxStockProducts(@PathVariable Long franchiseId) {
         log.info("Getting max stock products for franchise: {}", franchiseId);
         return productUseCase.getMaxStockProductsByFranchise(franchiseId);
     }
     
+    @GetMapping(value = "/franchises/{franchiseId}/stock-ranking",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+                    MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<StockRankingDto> getStockRanking(
+            @PathVariable Long franchiseId,
+            @RequestParam(required = false) Long branchId,
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(defaultValue = "top") String order) {
+        log.info("Getting {} {} products by stock for franchise: {}", order, k, franchiseId);
+        return productUseCase.getStockRanking(franchiseId, branchId, k, order);
+    }
+    
+    @GetMapping("/franchises/{franchiseId}/stock-ranking/products/{productId}")
+    public Mono<StockRankingDto> getProductStockRank(
+            @PathVariable Long franchiseId,
+            @PathVariable Long productId) {
+        log.info("Getting stock rank of product {} in franchise: {}", productId, franchiseId);
+        return productUseCase.getProductStockRank(franchiseId, productId);
+    }
+    
+    @PostMapping("/franchises/{franchiseId}/stock-ranking/rebuild")
+    public Mono<StockRankingRebuildDto> rebuildStockRanking(@PathVariable Long franchiseId) {
+        log.info("Rebuilding stock ranking for franchise: {}", franchiseId);
+        return productUseCase.rebuildStockRanking(franchiseId)
+                .map(products -> StockRankingRebuildDto.builder()
+                        .franchiseId(franchiseId)
+                        .products(products)
+                        .build());
+    }
+    
     private ProductDto toDto(Product product) {
         return ProductDto.builder()
                 .id(product.getId())
@@ -0,0 +1,91 @@
+package com.retailchain.franchise.infrastructure.adapter.input.web;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Learns which child resources of a franchise are requested shortly after the franchise
+ * itself. For every child path (the segment after /franchises/{id}/) it counts how many
+ * franchise reads were followed by a request for that child within the window; a child
+ * is predicted once it follows at least min-probability of min-samples or more reads.
+ * All counts are halved every AGING_READS franchise reads so changed habits are unlearned.
+ * Only the configured child routes are counted, so arbitrary paths cannot grow the counts.
+ */
+final class AccessSequenceTracker {
+    
+    static final long AGING_READS = 10_000;
+    
+    private final long windowMillis;
+    private final double minProbability;
+    private final long minSamples;
+    private final int maxTracked;
+    private final Set<String> children;
+    
+    private final AtomicLong parentReads = new AtomicLong();
+    private final Map<String, AtomicLong> followers = new ConcurrentHashMap<>();
+    // Franchise reads still inside the window, with the children already seen after them
+    private final Map<Long, RecentRead> recentReads = new ConcurrentHashMap<>();
+    
+    AccessSequenceTracker(long windowMillis, double minProbability, long minSamples, int maxTracked,
+                          Collection<String> children) {
+        this.windowMillis = windowMillis;
+        this.minProbability = minProbability;
+        this.minSamples = minSamples;
+        this.maxTracked = maxTracked;
+        this.children = Set.copyOf(children);
+    }
+    
+    void recordParent(Long franchiseId, long now) {
+        if (parentReads.incrementAndGet() >= AGING_READS) {
+            age();
+        }
+        if (recentReads.size() >= maxTracked) {
+            recentReads.values().removeIf(read -> now - read.readAt() > windowMillis);
+            if (recentReads.size() >= maxTracked) {
+                return;
+            }
+        }
+        recentReads.put(franchiseId, new RecentRead(now, ConcurrentHashMap.newKeySet()));
+    }
+    
+    void recordChild(Long franchiseId, String child, long now) {
+        if (!children.contains(child)) {
+            return;
+        }
+        RecentRead read = recentReads.get(franchiseId);
+        if (read == null || now - read.readAt() > windowMillis) {
+            return;
+        }
+        if (read.children().add(child)) {
+            followers.computeIfAbsent(child, c -> new AtomicLong()).incrementAndGet();
+        }
+    }
+    
+    List<String> predictedChildren() {
+        long reads = parentReads.get();
+        if (reads < minSamples) {
+            return List.of();
+        }
+        return followers.entrySet().stream()
+                .filter(entry -> (double) entry.getValue().get() / reads >= minProbability)
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+    
+    // Concurrent increments may land on either side of the halving, which only skews ratios slightly
+    private synchronized void age() {
+        if (parentReads.get() < AGING_READS) {
+            return;
+        }
+        parentReads.set(parentReads.get() / 2);
+        followers.values().forEach(count -> count.set(count.get() / 2));
+    }
+    
+    private record RecentRead(long readAt, Set<String> children) {
+    }
+}
@@ -0,0 +1,146 @@
+package com.retailchain.franchise.infrastructure.adapter.input.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Gives each node ownership of a slice of franchises, picked on a consistent hash ring
+ * over franchise.affinity.nodes, so that per-node caches hold different franchises and
+ * their combined capacity grows with the node count. Requests under
+ * /api/v1/franchises/{franchiseId} get an X-Franchise-Owner header naming the owner.
+ * In forward mode, GETs owned by another node are proxied to it; writes always run
+ * locally since their invalidations reach every node anyway. A request that was already
+ * forwarded, or whose owner fails before anything was sent to the client, is served locally.
+ * forward-timeout bounds connecting to the owner and each wait for its response, not the
+ * whole transfer, so a large body that keeps streaming is not cut off.
+ */
+@Slf4j
+@Component
+@Order(FranchiseAffinityFilter.ORDER)
+@ConditionalOnProperty(name = "franchise.affinity.enabled", havingValue = "true")
+public class FranchiseAffinityFilter implements WebFilter {
+    
+    static final int ORDER = ResponseCacheFilter.ORDER - 10;
+    static final String OWNER_HEADER = "X-Franchise-Owner";
+    static final String FORWARDED_HEADER = "X-Franchise-Forwarded-By";
+    private static final PathPattern FRANCHISE_PATH =
+            PathPatternParser.defaultInstance.parse("/api/v1/franchises/{franchiseId}/**");
+    
+    private final ConsistentHashRing ring;
+    private final String self;
+    private final boolean forward;
+    private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+    
+    public FranchiseAffinityFilter(WebClient.Builder webClientBuilder,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${franchise.affinity.nodes}") List<String> nodes,
+                                   @Value("${franchise.affinity.self}") String self,
+                                   @Value("${franchise.affinity.mode:header}") String mode,
+                                   @Value("${franchise.affinity.virtual-nodes:100}") int virtualNodes,
+                                   @Value("${franchise.affinity.forward-timeout:2s}") Duration forwardTimeout) {
+        if (!nodes.contains(self)) {
+            throw new IllegalArgumentException("franchise.affinity.self must be one of franchise.affinity.nodes: " + self);
+        }
+        this.ring = new ConsistentHashRing(nodes, virtualNodes);
+        this.self = self;
+        this.forward = "forward".equalsIgnoreCase(mode);
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) forwardTimeout.toMillis())
+                .responseTimeout(forwardTimeout);
+        this.webClient = webClientBuilder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+        this.meterRegistry = meterRegistry;
+        log.info("Franchise affinity enabled in {} mode, {} of {} nodes", forward ? "forward" : "header", self, nodes.size());
+    }
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        PathPattern.PathMatchInfo match = FRANCHISE_PATH.matchAndExtract(request.getPath().pathWithinApplication());
+        Long franchiseId = match != null ? parseId(match.getUriVariables().get("franchiseId")) : null;
+        if (franchiseId == null) {
+            return chain.filter(exchange);
+        }
+        
+        String owner = ring.ownerOf(franchiseId.toString());
+        exchange.getResponse().getHeaders().set(OWNER_HEADER, owner);
+        if (owner.equals(self)) {
+            return count("owner", chain.filter(exchange));
+        }
+        if (!forward || request.getMethod() != HttpMethod.GET || request.getHeaders().containsKey(FORWARDED_HEADER)) {
+            return count("not_owner", chain.filter(exchange));
+        }
+        return forwardTo(owner, exchange)
+                .doOnSuccess(v -> meterRegistry.counter("franchise.http.affinity.requests", "result", "forwarded")
+                        .increment())
+                // Until the response is committed the request can still be served here
+                .onErrorResume(e -> !exchange.getResponse().isCommitted(), e -> {
+                    log.warn("Owner {} of franchise {} failed, serving locally: {}", owner, franchiseId, e.toString());
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.setStatusCode(null);
+                    response.getHeaders().clear();
+                    response.getHeaders().set(OWNER_HEADER, owner);
+                    return count("fallback", chain.filter(exchange));
+                });
+    }
+    
+    private Mono<Void> forwardTo(String owner, ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        String query = request.getURI().getRawQuery();
+        URI target = URI.create(owner + request.getURI().getRawPath() + (query != null ? "?" + query : ""));
+        return webClient.get()
+                .uri(target)
+                .headers(headers -> {
+                    headers.addAll(request.getHeaders());
+                    headers.remove(HttpHeaders.HOST);
+                    headers.set(FORWARDED_HEADER, self);
+                })
+                .exchangeToMono(ownerResponse -> {
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.setStatusCode(ownerResponse.statusCode());
+                    HttpHeaders headers = ownerResponse.headers().asHttpHeaders();
+                    headers.forEach((name, values) -> {
+                        if (!HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)
+                                && !HttpHeaders.CONNECTION.equalsIgnoreCase(name)) {
+                            response.getHeaders().put(name, values);
+                        }
+                    });
+                    return response.writeWith(ownerResponse.bodyToFlux(DataBuffer.class));
+                });
+    }
+    
+    private Mono<Void> count(String result, Mono<Void> handling) {
+        meterRegistry.counter("franchise.http.affinity.requests", "result", result).increment();
+        return handling;
+    }
+    
+    private static Long parseId(String value) {
+        try {
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.retailchain.franchise.infrastructure.adapter.input.web;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prefetches the child resources clients usually ask for right after a franchise. Each
+ * GET /api/v1/franchises/{franchiseId} and each child GET below it feeds an
+ * {@link AccessSequenceTracker}; once a child is predicted, reading a franchise issues a
+ * GET for that child against this node in the background, so the response cache (and
+ * the repository caches behind it) already hold it when the client's request arrives.
+ * At most max-concurrency prefetches run at once; further ones are dropped. A prefetch
+ * counts as a hit when the client requests it within hit-window, and as waste otherwise.
+ * <p>
+ * Only franchise and child reads answered with a 200 are learned from, and only the child
+ * routes listed in franchise.prefetch.children are tracked. Without the response cache a
+ * prefetched child would not be kept, so the filter stays inactive unless
+ * franchise.response-cache.enabled is on. Runs after {@link FranchiseAffinityFilter}: a
+ * parent forwarded to its owner is learned from and prefetched for on the owner, whose
+ * response cache is the one that keeps the children.
+ */
+@Slf4j
+@Component
+@Order(PrefetchFilter.ORDER)
+@ConditionalOnProperty(name = "franchise.prefetch.enabled", havingValue = "true")
+public class PrefetchFilter implements WebFilter {
+    
+    // Inside the affinity filter, so only the owner of a franchise prefetches its children
+    static final int ORDER = FranchiseAffinityFilter.ORDER + 5;
+    static final String PREFETCH_HEADER = "X-Prefetch";
+    private static final PathPattern FRANCHISE_PATH =
+            PathPatternParser.defaultInstance.parse("/api/v1/franchises/{franchiseId}");
+    private static final PathPattern CHILD_PATH =
+            PathPatternParser.defaultInstance.parse("/api/v1/franchises/{franchiseId}/{child}");
+    
+    private final AccessSequenceTracker tracker;
+    private final WebClient.Builder webClientBuilder;
+    private final MeterRegistry meterRegistry;
+    private final int maxConcurrency;
+    private final Duration hitWindow;
+    private final Duration timeout;
+    private final boolean active;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Prefetched paths not requested yet, with the time they stop counting as a hit
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+    private volatile WebClient webClient;
+    private Disposable sweeper;
+    
+    public PrefetchFilter(WebClient.Builder webClientBuilder,
+                          MeterRegistry meterRegistry,
+                          @Value("${franchise.prefetch.window:1s}") Duration window,
+                          @Value("${franchise.prefetch.min-probability:0.6}") double minProbability,
+                          @Value("${franchise.prefetch.min-samples:20}") long minSamples,
+                          @Value("${franchise.prefetch.max-tracked:10000}") int maxTracked,
+                          @Value("${franchise.prefetch.children:branches,max-stock-products}") List<String> children,
+                          @Value("${franchise.prefetch.max-concurrency:8}") int maxConcurrency,
+                          @Value("${franchise.prefetch.hit-window:5s}") Duration hitWindow,
+                          @Value("${franchise.prefetch.timeout:2s}") Duration timeout,
+                          @Value("${franchise.response-cache.enabled:false}") boolean responseCacheEnabled) {
+        this.tracker = new AccessSequenceTracker(window.toMillis(), minProbability, minSamples, maxTracked, children);
+        this.webClientBuilder = webClientBuilder;
+        this.meterRegistry = meterRegistry;
+        this.maxConcurrency = maxConcurrency;
+        this.hitWindow = hitWindow;
+        this.timeout = timeout;
+        this.active = responseCacheEnabled;
+        if (!active) {
+            log.warn("Prefetching stays inactive: franchise.response-cache.enabled is off, so prefetched responses would not be kept");
+        }
+        Gauge.builder("franchise.http.prefetch.in_flight", inFlight, AtomicInteger::get)
+                .description("Prefetch requests currently running")
+                .register(meterRegistry);
+    }
+    
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        if (!active) {
+            return;
+        }
+        webClient = webClientBuilder.clone()
+                .baseUrl("http://localhost:" + event.getWebServer().getPort())
+                .build();
+    }
+    
+    @PostConstruct
+    void startSweeper() {
+        if (!active) {
+            return;
+        }
+        sweeper = Flux.interval(hitWindow, hitWindow)
+                .subscribe(tick -> sweepExpired(System.currentTimeMillis()));
+    }
+    
+    @PreDestroy
+    void stopSweeper() {
+        if (sweeper != null) {
+            sweeper.dispose();
+        }
+    }
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!active || request.getMethod() != HttpMethod.GET || request.getHeaders().containsKey(PREFETCH_HEADER)) {
+            return chain.filter(exchange);
+        }
+        long now = System.currentTimeMillis();
+        String path = request.getPath().pathWithinApplication().value();
+        PathPattern.PathMatchInfo franchise = FRANCHISE_PATH.matchAndExtract(request.getPath().pathWithinApplication());
+        PathPattern.PathMatchInfo child = CHILD_PATH.matchAndExtract(request.getPath().pathWithinApplication());
+        if (franchise != null) {
+            Long franchiseId = parseId(franchise.getUriVariables().get("franchiseId"));
+            if (franchiseId != null) {
+                // After the parent is handled, so reads of franchises that do not exist fan out into nothing
+                return chain.filter(exchange)
+                        .then(Mono.fromRunnable(() -> {
+                            if (isOk(exchange.getResponse().getStatusCode())) {
+                                tracker.recordParent(franchiseId, now);
+                                prefetchChildren(franchiseId, request.getHeaders().getAccept(), System.currentTimeMillis());
+                            }
+                        }));
+            }
+        } else if (child != null) {
+            Long franchiseId = parseId(child.getUriVariables().get("franchiseId"));
+            if (franchiseId != null) {
+                return chain.filter(exchange)
+                        .then(Mono.fromRunnable(() -> {
+                            if (isOk(exchange.getResponse().getStatusCode())) {
+                                recordChild(franchiseId, child.getUriVariables().get("child"), path, now);
+                            }
+                        }));
+            }
+        }
+        return chain.filter(exchange);
+    }
+    
+    private void recordChild(Long franchiseId, String child, String path, long now) {
+        tracker.recordChild(franchiseId, child, now);
+        Long expiresAt = pending.remove(path);
+        if (expiresAt != null) {
+            meterRegistry.counter("franchise.http.prefetch.outcome", "result",
+                    expiresAt >= now ? "hit" : "waste").increment();
+        }
+    }
+    
+    private void prefetchChildren(Long franchiseId, List<MediaType> accept, long now) {
+        WebClient client = webClient;
+        if (client == null) {
+            return;
+        }
+        for (String child : tracker.predictedChildren()) {
+            String path = "/api/v1/franchises/" + franchiseId + "/" + child;
+            if (pending.containsKey(path)) {
+                continue;
+            }
+            if (inFlight.incrementAndGet() > maxConcurrency) {
+                inFlight.decrementAndGet();
+                meterRegistry.counter("franchise.http.prefetch.requests", "result", "dropped").increment();
+                continue;
+            }
+            pending.put(path, now + hitWindow.toMillis());
+            meterRegistry.counter("franchise.http.prefetch.requests", "result", "issued").increment();
+            client.get()
+                    .uri(path)
+                    .headers(headers -> {
+                        // Same Accept as the client, so the response cache stores it under the client's key
+                        if (!accept.isEmpty()) {
+                            headers.setAccept(accept);
+                        }
+                        headers.set(PREFETCH_HEADER, "1");
+                    })
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(timeout)
+                    .doFinally(signal -> inFlight.decrementAndGet())
+                    .subscribe(response -> log.debug("Prefetched {}", path), error -> {
+                        pending.remove(path);
+                        meterRegistry.counter("franchise.http.prefetch.requests", "result", "failed").increment();
+                        log.debug("Prefetch of {} failed: {}", path, error.getMessage());
+                    });
+        }
+    }
+    
+    void sweepExpired(long now) {
+        pending.entrySet().removeIf(entry -> {
+            if (entry.getValue() >= now) {
+                return false;
+            }
+            meterRegistry.counter("franchise.http.prefetch.outcome", "result", "waste").increment();
+            return true;
+        });
+    }
+    
+    // No status set means the handler left the default 200
+    private static boolean isOk(HttpStatusCode status) {
+        return status == null || status.value() == HttpStatus.OK.value();
+    }
+    
+    private static Long parseId(String value) {
+        try {
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
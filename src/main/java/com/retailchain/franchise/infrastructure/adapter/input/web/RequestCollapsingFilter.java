@@ -0,0 +1,168 @@
+package com.retailchain.franchise.infrastructure.adapter.input.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collapses identical GET requests that are in flight at the same time: the first one
+ * (the leader) runs the handler with its response buffered, and every request that
+ * arrives with the same method, path, query and key headers before it finishes gets a
+ * copy of that response instead of running the handler again. Streaming requests
+ * (NDJSON/SSE) are never collapsed.
+ */
+@Slf4j
+@Component
+@Order(RequestCollapsingFilter.ORDER)
+@ConditionalOnProperty(name = "franchise.collapsing.enabled", havingValue = "true")
+public class RequestCollapsingFilter implements WebFilter {
+    
+    static final int ORDER = -100;
+    
+    private final String pathPrefix;
+    private final List<String> keyHeaders;
+    private final Map<String, Mono<CapturedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+    
+    public RequestCollapsingFilter(MeterRegistry meterRegistry,
+                                   @Value("${franchise.collapsing.path-prefix:/api/}") String pathPrefix,
+                                   @Value("${franchise.collapsing.key-headers:Accept,Accept-Encoding,Accept-Language,Authorization}") List<String> keyHeaders) {
+        this.pathPrefix = pathPrefix;
+        this.keyHeaders = keyHeaders;
+        this.leaders = Counter.builder("franchise.http.collapsing.requests")
+                .description("GET requests that ran the handler and shared their response")
+                .tag("role", "leader")
+                .register(meterRegistry);
+        this.followers = Counter.builder("franchise.http.collapsing.requests")
+                .description("GET requests served from an identical request already in flight")
+                .tag("role", "follower")
+                .register(meterRegistry);
+        Gauge.builder("franchise.http.collapsing.in_flight", inFlight, Map::size)
+                .description("Distinct GET requests currently being collapsed")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!isCollapsible(request)) {
+            return chain.filter(exchange);
+        }
+        
+        String key = keyOf(request);
+        CapturingResponse capturing = new CapturingResponse(exchange.getResponse());
+        Mono<CapturedResponse> candidate = Mono.defer(() -> chain.filter(exchange.mutate().response(capturing).build()))
+                .then(Mono.fromSupplier(capturing::captured))
+                .doFinally(signal -> inFlight.remove(key))
+                .cache();
+        
+        Mono<CapturedResponse> existing = inFlight.putIfAbsent(key, candidate);
+        if (existing == null) {
+            leaders.increment();
+            // Status and headers were already set on this response by the handler
+            return candidate.flatMap(captured -> writeBody(exchange.getResponse(), captured));
+        }
+        
+        followers.increment();
+        log.debug("Collapsed request onto in-flight {}", key);
+        return existing.flatMap(captured -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(captured.status());
+            response.getHeaders().putAll(captured.headers());
+            return writeBody(response, captured);
+        });
+    }
+    
+    private boolean isCollapsible(ServerHttpRequest request) {
+        if (request.getMethod() != HttpMethod.GET || !request.getPath().value().startsWith(pathPrefix)) {
+            return false;
+        }
+        return request.getHeaders().getAccept().stream()
+                .noneMatch(type -> MediaType.APPLICATION_NDJSON.includes(type)
+                        || MediaType.TEXT_EVENT_STREAM.includes(type));
+    }
+    
+    private String keyOf(ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder("GET ").append(request.getURI().getRawPath());
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        HttpHeaders headers = request.getHeaders();
+        for (String header : keyHeaders) {
+            key.append('\n').append(header).append(':').append(String.join(",", headers.getOrEmpty(header)));
+        }
+        return key.toString();
+    }
+    
+    private Mono<Void> writeBody(ServerHttpResponse response, CapturedResponse captured) {
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(captured.body())));
+    }
+    
+    record CapturedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+    
+    /**
+     * Keeps the body in memory instead of committing it, so it can be replayed to every
+     * waiting request once the handler completes.
+     */
+    private static final class CapturingResponse extends ServerHttpResponseDecorator {
+        private volatile byte[] body = new byte[0];
+        
+        CapturingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+        
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(Flux.from(body))
+                    .doOnNext(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+                        this.body = bytes;
+                    })
+                    .then();
+        }
+        
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).concatMap(Flux::from));
+        }
+        
+        @Override
+        public Mono<Void> setComplete() {
+            return Mono.empty();
+        }
+        
+        CapturedResponse captured() {
+            HttpStatusCode status = getStatusCode();
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(getHeaders());
+            return new CapturedResponse(status != null ? status : HttpStatusCode.valueOf(200), headers, body);
+        }
+    }
+}
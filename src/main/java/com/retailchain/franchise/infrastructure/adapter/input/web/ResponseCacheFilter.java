@@ -0,0 +1,198 @@
+package com.retailchain.franchise.infrastructure.adapter.input.web;
+
+import com.retailchain.franchise.domain.port.output.CacheTagInvalidator;
+import com.retailchain.franchise.infrastructure.adapter.output.persistence.memory.InMemoryResponseCache;
+import com.retailchain.franchise.infrastructure.adapter.output.persistence.memory.InMemoryResponseCache.CachedResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Serves selected GET endpoints from their already encoded body. A hit writes the stored
+ * bytes straight to the response without running the handler or the JSON encoder; a miss
+ * runs the handler and keeps the body of a 200 response, tagged with the franchise and
+ * branch ids taken from the path so that writes through the use cases can drop it.
+ * Runs before request collapsing, so only misses are collapsed.
+ * <p>
+ * The key keeps only the listed query parameters, in a fixed order, so parameters the
+ * handlers ignore cannot spread one response over many entries.
+ */
+@Slf4j
+@Component
+@Order(ResponseCacheFilter.ORDER)
+@ConditionalOnProperty(name = "franchise.response-cache.enabled", havingValue = "true")
+public class ResponseCacheFilter implements WebFilter {
+    
+    static final int ORDER = RequestCollapsingFilter.ORDER - 10;
+    static final String CACHE_HEADER = "X-Response-Cache";
+    
+    private final InMemoryResponseCache responseCache;
+    private final List<PathPattern> patterns;
+    private final List<String> queryParams;
+    private final Counter hits;
+    private final Counter misses;
+    
+    public ResponseCacheFilter(InMemoryResponseCache responseCache,
+                               MeterRegistry meterRegistry,
+                               @Value("${franchise.response-cache.paths:/api/v1/franchises/{franchiseId},/api/v1/franchises/{franchiseId}/branches,/api/v1/franchises/{franchiseId}/max-stock-products,/api/v1/branches/{branchId}/products}") List<String> paths,
+                               @Value("${franchise.response-cache.query-params:after,limit}") List<String> queryParams) {
+        this.responseCache = responseCache;
+        this.patterns = paths.stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        this.queryParams = queryParams.stream().sorted().toList();
+        this.hits = Counter.builder("franchise.http.response_cache.requests")
+                .description("GET requests answered with a stored encoded body")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("franchise.http.response_cache.requests")
+                .description("Cacheable GET requests that ran the handler")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET || isStreaming(request)) {
+            return chain.filter(exchange);
+        }
+        PathPattern.PathMatchInfo match = patterns.stream()
+                .map(pattern -> pattern.matchAndExtract(request.getPath().pathWithinApplication()))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+        if (match == null) {
+            return chain.filter(exchange);
+        }
+        
+        String key = keyOf(request);
+        CachedResponse cached = responseCache.get(key);
+        if (cached != null) {
+            hits.increment();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatusCode.valueOf(cached.status()));
+            if (cached.contentType() != null) {
+                response.getHeaders().set(HttpHeaders.CONTENT_TYPE, cached.contentType());
+            }
+            response.getHeaders().setContentLength(cached.body().length);
+            response.getHeaders().set(CACHE_HEADER, "HIT");
+            return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+        }
+        
+        misses.increment();
+        exchange.getResponse().getHeaders().set(CACHE_HEADER, "MISS");
+        StoringResponse storing = new StoringResponse(exchange.getResponse(), key, tagsOf(match), responseCache.epoch());
+        return chain.filter(exchange.mutate().response(storing).build());
+    }
+    
+    private boolean isStreaming(ServerHttpRequest request) {
+        return request.getHeaders().getAccept().stream()
+                .anyMatch(type -> MediaType.APPLICATION_NDJSON.includes(type)
+                        || MediaType.TEXT_EVENT_STREAM.includes(type));
+    }
+    
+    private String keyOf(ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(request.getURI().getRawPath());
+        char separator = '?';
+        for (String name : queryParams) {
+            List<String> values = request.getQueryParams().get(name);
+            if (values != null) {
+                key.append(separator).append(name).append('=').append(String.join(",", values));
+                separator = '&';
+            }
+        }
+        return key.append('\n').append(String.join(",", request.getHeaders().getOrEmpty(HttpHeaders.ACCEPT)))
+                .toString();
+    }
+    
+    private static Set<String> tagsOf(PathPattern.PathMatchInfo match) {
+        Set<String> tags = new LinkedHashSet<>();
+        String franchiseId = match.getUriVariables().get("franchiseId");
+        String branchId = match.getUriVariables().get("branchId");
+        try {
+            if (franchiseId != null) {
+                tags.add(CacheTagInvalidator.franchiseTag(Long.valueOf(franchiseId)));
+            }
+            if (branchId != null) {
+                tags.add(CacheTagInvalidator.branchTag(Long.valueOf(branchId)));
+            }
+        } catch (NumberFormatException e) {
+            // Rejected by the handler anyway; untagged responses are never stored
+            tags.clear();
+        }
+        return tags;
+    }
+    
+    /**
+     * Joins the encoded body, stores a copy when the response is a 200 for a tagged path,
+     * and passes the bytes on to the real response.
+     */
+    private final class StoringResponse extends ServerHttpResponseDecorator {
+        private final String key;
+        private final Set<String> tags;
+        private final long startEpoch;
+        
+        StoringResponse(ServerHttpResponse delegate, String key, Set<String> tags, long startEpoch) {
+            super(delegate);
+            this.key = key;
+            this.tags = tags;
+            this.startEpoch = startEpoch;
+        }
+        
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(Flux.from(body))
+                    .flatMap(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+                        store(bytes);
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+        
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).concatMap(Flux::from));
+        }
+        
+        private void store(byte[] bytes) {
+            HttpStatusCode status = getStatusCode();
+            if (tags.isEmpty() || (status != null && status.value() != HttpStatus.OK.value())) {
+                return;
+            }
+            MediaType contentType = getHeaders().getContentType();
+            responseCache.put(key, tags,
+                    new CachedResponse(HttpStatus.OK.value(), contentType != null ? contentType.toString() : null, bytes),
+                    startEpoch);
+            log.debug("Stored encoded response for {} tagged {}", key, tags);
+        }
+    }
+}
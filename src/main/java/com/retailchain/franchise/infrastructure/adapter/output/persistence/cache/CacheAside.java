@@ -0,0 +1,128 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.cache;
+
+import com.retailchain.franchise.domain.port.output.CacheAccessTracker;
+import com.retailchain.franchise.domain.port.output.CacheRepository;
+import com.retailchain.franchise.domain.port.output.WriteRateTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Cache-aside reads and invalidation for one repository decorator. Cache failures are
+ * logged and treated as misses so the database stays the source of truth. Ids the
+ * database does not know are remembered under a separate marker key for the negative
+ * TTL; creating the id must evict that marker. Entry TTLs are adapted to the write rate
+ * of each key, and reads are recorded with the access tracker.
+ */
+@Slf4j
+final class CacheAside {
+    
+    static final String NEGATIVE_SUFFIX = ":missing";
+    
+    private final CacheRepository cacheRepository;
+    private final WriteRateTracker writeRateTracker;
+    private final CacheAccessTracker accessTracker;
+    private final String name;
+    private final Duration negativeTtl;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter negativeHits;
+    
+    CacheAside(CacheRepository cacheRepository, WriteRateTracker writeRateTracker, CacheAccessTracker accessTracker,
+               MeterRegistry meterRegistry, String name, Duration negativeTtl) {
+        this.cacheRepository = cacheRepository;
+        this.writeRateTracker = writeRateTracker;
+        this.accessTracker = accessTracker;
+        this.name = name;
+        this.negativeTtl = negativeTtl;
+        this.hits = Counter.builder("franchise.cache.requests")
+                .tag("cache", name)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("franchise.cache.requests")
+                .tag("cache", name)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        // Each negative hit is a database lookup that did not happen
+        this.negativeHits = Counter.builder("franchise.cache.negative.hits")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+    
+    <T> Mono<T> get(String key, Class<T> type, Duration ttl, Supplier<Mono<T>> loader) {
+        return get(key, type, ttl, loader, false);
+    }
+    
+    // For single-id lookups, where an empty result is worth remembering
+    <T> Mono<T> getOrRememberMissing(String key, Class<T> type, Duration ttl, Supplier<Mono<T>> loader) {
+        return get(key, type, ttl, loader, isNegativeCachingEnabled());
+    }
+    
+    private <T> Mono<T> get(String key, Class<T> type, Duration ttl, Supplier<Mono<T>> loader,
+                            boolean negativeCaching) {
+        accessTracker.record(key);
+        return cacheRepository.get(key, type)
+                .onErrorResume(e -> {
+                    log.warn("Cache {} read failed for key {}: {}", name, key, e.getMessage());
+                    return Mono.empty();
+                })
+                .doOnNext(value -> hits.increment())
+                .switchIfEmpty(Mono.defer(() -> (negativeCaching ? isKnownMissing(key) : Mono.just(false))
+                        .flatMap(missing -> {
+                            if (missing) {
+                                negativeHits.increment();
+                                return Mono.<T>empty();
+                            }
+                            misses.increment();
+                            return loader.get()
+                                    .flatMap(value -> put(key, value, ttl).thenReturn(value))
+                                    .switchIfEmpty(Mono.defer(() -> negativeCaching
+                                            ? store(negativeKey(key), Boolean.TRUE, negativeTtl).then(Mono.<T>empty())
+                                            : Mono.<T>empty()));
+                        })));
+    }
+    
+    // Marker recording that the id behind key does not exist; writers creating the id evict it
+    static String negativeKey(String key) {
+        return key + NEGATIVE_SUFFIX;
+    }
+    
+    // Only consulted after a miss, so hits keep costing a single round trip
+    private Mono<Boolean> isKnownMissing(String key) {
+        return cacheRepository.get(negativeKey(key), Boolean.class)
+                .hasElement()
+                .onErrorResume(e -> {
+                    log.warn("Cache {} read failed for key {}: {}", name, negativeKey(key), e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+    
+    private boolean isNegativeCachingEnabled() {
+        return negativeTtl != null && !negativeTtl.isZero();
+    }
+    
+    // ttl is the default for keys without an observed write rate
+    <T> Mono<Void> put(String key, T value, Duration ttl) {
+        return store(key, value, writeRateTracker.ttlFor(key, ttl));
+    }
+    
+    private <T> Mono<Void> store(String key, T value, Duration ttl) {
+        return cacheRepository.set(key, value, ttl)
+                .onErrorResume(e -> {
+                    log.warn("Cache {} write failed for key {}: {}", name, key, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+    
+    Mono<Void> evict(Collection<String> keys) {
+        return cacheRepository.deleteAll(keys)
+                .onErrorResume(e -> {
+                    log.warn("Cache {} eviction failed for keys {}: {}", name, keys, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,119 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.cache;
+
+import com.retailchain.franchise.application.cache.CacheNamespaces;
+import com.retailchain.franchise.domain.model.Branch;
+import com.retailchain.franchise.domain.port.output.BranchRepository;
+import com.retailchain.franchise.domain.port.output.CacheAccessTracker;
+import com.retailchain.franchise.domain.port.output.CacheRepository;
+import com.retailchain.franchise.domain.port.output.WriteRateTracker;
+import com.retailchain.franchise.infrastructure.adapter.output.persistence.mysql.adapter.BranchRepositoryAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Caches branches by id and the branch list of each franchise, whole and page by page.
+ * The lists live in the franchise's cache namespace, so writes refresh the branch entry
+ * and move the franchise to a new generation.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(name = "franchise.cache.repositories.branch.enabled", havingValue = "true")
+public class CachingBranchRepository implements BranchRepository {
+    
+    static final String BRANCH_KEY_PREFIX = "branch:";
+    static final String BRANCHES_KEY = "branches";
+    
+    private final BranchRepositoryAdapter delegate;
+    private final CacheAside cache;
+    private final CacheNamespaces namespaces;
+    private final Duration ttl;
+    
+    public CachingBranchRepository(BranchRepositoryAdapter delegate,
+                                   CacheRepository cacheRepository,
+                                   CacheNamespaces namespaces,
+                                   WriteRateTracker writeRateTracker,
+                                   CacheAccessTracker accessTracker,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${franchise.cache.repositories.branch.ttl:10m}") Duration ttl,
+                                   @Value("${franchise.cache.repositories.branch.negative-ttl:30s}") Duration negativeTtl) {
+        this.delegate = delegate;
+        this.cache = new CacheAside(cacheRepository, writeRateTracker, accessTracker, meterRegistry, "branch",
+                negativeTtl);
+        this.namespaces = namespaces;
+        this.ttl = ttl;
+    }
+    
+    @Override
+    public Mono<Branch> save(Branch branch) {
+        return delegate.save(branch)
+                .flatMap(saved -> writeThrough(saved)
+                        .then(cache.evict(List.of(CacheAside.negativeKey(BRANCH_KEY_PREFIX + saved.getId()))))
+                        .thenReturn(saved));
+    }
+    
+    @Override
+    public Mono<Branch> findById(Long id) {
+        return cache.getOrRememberMissing(BRANCH_KEY_PREFIX + id, Branch.class, ttl, () -> delegate.findById(id))
+                .map(CachingBranchRepository::copy);
+    }
+    
+    @Override
+    public Flux<Branch> findByFranchiseId(Long franchiseId) {
+        Supplier<Mono<Branch[]>> loader = () -> delegate.findByFranchiseId(franchiseId)
+                .collectList()
+                .map(branches -> branches.toArray(Branch[]::new));
+        return namespaces.key(CacheNamespaces.franchise(franchiseId), BRANCHES_KEY)
+                .flatMap(key -> cache.get(key, Branch[].class, ttl, loader))
+                .switchIfEmpty(Mono.defer(loader))
+                .flatMapIterable(Arrays::asList)
+                .map(CachingBranchRepository::copy);
+    }
+    
+    @Override
+    public Flux<Branch> findByFranchiseId(Long franchiseId, Long afterId, int limit) {
+        Supplier<Mono<Branch[]>> loader = () -> delegate.findByFranchiseId(franchiseId, afterId, limit)
+                .collectList()
+                .map(branches -> branches.toArray(Branch[]::new));
+        return namespaces.key(CacheNamespaces.franchise(franchiseId), pageKey(afterId, limit))
+                .flatMap(key -> cache.get(key, Branch[].class, ttl, loader))
+                .switchIfEmpty(Mono.defer(loader))
+                .flatMapIterable(Arrays::asList)
+                .map(CachingBranchRepository::copy);
+    }
+    
+    @Override
+    public Mono<Branch> update(Branch branch) {
+        return delegate.update(branch)
+                .flatMap(updated -> writeThrough(updated).thenReturn(updated));
+    }
+    
+    private Mono<Void> writeThrough(Branch branch) {
+        return cache.put(BRANCH_KEY_PREFIX + branch.getId(), branch, ttl)
+                .then(namespaces.invalidate(CacheNamespaces.franchise(branch.getFranchiseId())));
+    }
+    
+    static String pageKey(Long afterId, int limit) {
+        return BRANCHES_KEY + ":after:" + (afterId != null ? afterId : 0L) + ":limit:" + limit;
+    }
+    
+    // Callers mutate what they read, which must not reach a value held in the local L1
+    private static Branch copy(Branch branch) {
+        return Branch.builder()
+                .id(branch.getId())
+                .name(branch.getName())
+                .franchiseId(branch.getFranchiseId())
+                .createdAt(branch.getCreatedAt())
+                .updatedAt(branch.getUpdatedAt())
+                .products(branch.getProducts())
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.cache;
+
+import com.retailchain.franchise.domain.model.Product;
+import com.retailchain.franchise.domain.model.StockUpdate;
+import com.retailchain.franchise.domain.model.StockUpdateResult;
+import com.retailchain.franchise.domain.port.output.CacheAccessTracker;
+import com.retailchain.franchise.domain.port.output.CacheRepository;
+import com.retailchain.franchise.domain.port.output.WriteRateTracker;
+import com.retailchain.franchise.domain.port.output.ProductRepository;
+import com.retailchain.franchise.infrastructure.adapter.output.persistence.mysql.adapter.ProductRepositoryAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Caches products by id. Full-entity writes refresh the entry; stock-only writes
+ * evict it, since they do not return the whole product.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(name = "franchise.cache.repositories.product.enabled", havingValue = "true")
+public class CachingProductRepository implements ProductRepository {
+    
+    static final String PRODUCT_KEY_PREFIX = "product:";
+    private static final int EVICTION_BATCH_SIZE = 500;
+    
+    private final ProductRepositoryAdapter delegate;
+    private final CacheAside cache;
+    private final Duration ttl;
+    
+    public CachingProductRepository(ProductRepositoryAdapter delegate,
+                                    CacheRepository cacheRepository,
+                                    WriteRateTracker writeRateTracker,
+                                    CacheAccessTracker accessTracker,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${franchise.cache.repositories.product.ttl:1m}") Duration ttl,
+                                    @Value("${franchise.cache.repositories.product.negative-ttl:30s}") Duration negativeTtl) {
+        this.delegate = delegate;
+        this.cache = new CacheAside(cacheRepository, writeRateTracker, accessTracker, meterRegistry, "product",
+                negativeTtl);
+        this.ttl = ttl;
+    }
+    
+    @Override
+    public Mono<Product> save(Product product) {
+        return delegate.save(product)
+                .flatMap(saved -> cache.put(PRODUCT_KEY_PREFIX + saved.getId(), saved, ttl)
+                        .then(cache.evict(List.of(CacheAside.negativeKey(PRODUCT_KEY_PREFIX + saved.getId()))))
+                        .thenReturn(saved));
+    }
+    
+    @Override
+    public Flux<Product> saveAll(Flux<Product> products) {
+        return delegate.saveAll(products)
+                .buffer(EVICTION_BATCH_SIZE)
+                .concatMap(saved -> cache.evict(saved.stream()
+                                .map(product -> CacheAside.negativeKey(PRODUCT_KEY_PREFIX + product.getId()))
+                                .toList())
+                        .thenMany(Flux.fromIterable(saved)));
+    }
+    
+    @Override
+    public Mono<Product> findById(Long id) {
+        return cache.getOrRememberMissing(PRODUCT_KEY_PREFIX + id, Product.class, ttl, () -> delegate.findById(id))
+                .map(CachingProductRepository::copy);
+    }
+    
+    // A single IN query is cheaper than a cache round trip per id
+    @Override
+    public Flux<Product> findAllById(Collection<Long> ids) {
+        return delegate.findAllById(ids);
+    }
+    
+    @Override
+    public Flux<Product> findByBranchId(Long branchId) {
+        return delegate.findByBranchId(branchId);
+    }
+    
+    @Override
+    public Flux<Product> findByBranchId(Long branchId, Long afterId, int limit) {
+        return delegate.findByBranchId(branchId, afterId, limit);
+    }
+    
+    @Override
+    public Flux<Product> findAll() {
+        return delegate.findAll();
+    }
+    
+    @Override
+    public Mono<Product> update(Product product) {
+        return delegate.update(product)
+                .flatMap(updated -> cache.put(PRODUCT_KEY_PREFIX + updated.getId(), updated, ttl).thenReturn(updated));
+    }
+    
+    @Override
+    public Flux<StockUpdateResult> updateStocks(Flux<StockUpdate> updates) {
+        return delegate.updateStocks(updates)
+                .buffer(EVICTION_BATCH_SIZE)
+                .concatMap(results -> cache.evict(results.stream()
+                                .filter(result -> result.getStatus() == StockUpdateResult.Status.UPDATED)
+                                .map(result -> PRODUCT_KEY_PREFIX + result.getProductId())
+                                .toList())
+                        .thenMany(Flux.fromIterable(results)));
+    }
+    
+    @Override
+    public Mono<Integer> adjustStock(Long productId, int delta) {
+        return delegate.adjustStock(productId, delta)
+                .flatMap(stock -> cache.evict(List.of(PRODUCT_KEY_PREFIX + productId)).thenReturn(stock));
+    }
+    
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return delegate.deleteById(id)
+                .then(cache.evict(List.of(PRODUCT_KEY_PREFIX + id)));
+    }
+    
+    // Callers mutate what they read, which must not reach a value held in the local L1
+    private static Product copy(Product product) {
+        return Product.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .stock(product.getStock())
+                .branchId(product.getBranchId())
+                .createdAt(product.getCreatedAt())
+                .updatedAt(product.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,213 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.memory;
+
+import com.retailchain.franchise.domain.model.StockUpdate;
+import com.retailchain.franchise.domain.model.StockUpdateResult;
+import com.retailchain.franchise.domain.port.output.CacheTagInvalidator;
+import com.retailchain.franchise.domain.port.output.ProductRepository;
+import com.retailchain.franchise.domain.port.output.StockWriteBuffer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind buffer for absolute stock writes (franchise.stock-buffer.enabled). Only the
+ * latest value per product is kept and pending values are written with the set-based bulk
+ * UPDATE every flush-interval, or as soon as max-pending products are waiting. Values that
+ * are still pending when the context closes are flushed before the connection pool goes away.
+ * <p>
+ * Batches are written one after another, and flush/discard wait for the batch in flight:
+ * its snapshot may hold an older value that would otherwise land after the caller's write.
+ * Response cache tags given with a value are invalidated when its batch has been written,
+ * so a response rendered from the old row before then is not served for the whole TTL.
+ */
+@Slf4j
+@Component
+public class CoalescingStockWriteBuffer implements StockWriteBuffer {
+    
+    private final ProductRepository productRepository;
+    private final CacheTagInvalidator cacheTagInvalidator;
+    private final boolean enabled;
+    private final Duration flushInterval;
+    private final int maxPending;
+    private final Duration shutdownTimeout;
+    private final Timer flushTimer;
+    
+    private final Map<Long, PendingStock> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    // Completes once the last batch queued so far has been written
+    private final AtomicReference<Mono<Void>> lastWrite = new AtomicReference<>(Mono.empty());
+    private Disposable ticker;
+    
+    public CoalescingStockWriteBuffer(ProductRepository productRepository,
+                                      CacheTagInvalidator cacheTagInvalidator,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${franchise.stock-buffer.enabled:false}") boolean enabled,
+                                      @Value("${franchise.stock-buffer.flush-interval:500ms}") Duration flushInterval,
+                                      @Value("${franchise.stock-buffer.max-pending:1000}") int maxPending,
+                                      @Value("${franchise.stock-buffer.shutdown-timeout:10s}") Duration shutdownTimeout) {
+        this.productRepository = productRepository;
+        this.cacheTagInvalidator = cacheTagInvalidator;
+        this.enabled = enabled;
+        this.flushInterval = flushInterval;
+        this.maxPending = maxPending;
+        this.shutdownTimeout = shutdownTimeout;
+        this.flushTimer = Timer.builder("franchise.stock.buffer.flush")
+                .description("Time to write one batch of buffered stock values")
+                .register(meterRegistry);
+        Gauge.builder("franchise.stock.buffer.depth", pending, Map::size)
+                .description("Products with a stock value waiting to be written")
+                .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Stock write-behind enabled, flushing every {} or at {} pending products", flushInterval, maxPending);
+        ticker = Flux.interval(flushInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> flushAll(), 1)
+                .subscribe();
+    }
+    
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+        if (!pending.isEmpty()) {
+            log.info("Flushing {} buffered stock values before shutdown", pending.size());
+            serialized(() -> write(snapshot()))
+                    .onErrorResume(e -> Mono.empty())
+                    .block(shutdownTimeout);
+            if (!pending.isEmpty()) {
+                log.error("{} buffered stock values could not be written before shutdown: {}", pending.size(), pending);
+            }
+        }
+    }
+    
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    @Override
+    public void submit(Long productId, int stock, Collection<String> cacheTags) {
+        pending.put(productId, new PendingStock(stock, cacheTags));
+        if (pending.size() >= maxPending) {
+            flushAll().subscribe();
+        }
+    }
+    
+    @Override
+    public Mono<Void> discard(Long productId) {
+        return Mono.defer(() -> {
+            pending.remove(productId);
+            return lastWrite.get();
+        });
+    }
+    
+    // Fails when the pending value cannot be written, so the caller does not write over it
+    @Override
+    public Mono<Void> flush(Long productId) {
+        return serialized(() -> {
+            PendingStock value = pending.get(productId);
+            if (value == null) {
+                return Mono.empty();
+            }
+            return write(Map.of(productId, value));
+        });
+    }
+    
+    Mono<Void> flushAll() {
+        // A single flush at a time; whatever arrives meanwhile waits for the next one
+        if (pending.isEmpty() || !flushing.compareAndSet(false, true)) {
+            return Mono.empty();
+        }
+        // Values stay pending and are retried on the next flush
+        return serialized(() -> write(snapshot()))
+                .onErrorResume(e -> Mono.empty())
+                .doFinally(signal -> flushing.set(false));
+    }
+    
+    int depth() {
+        return pending.size();
+    }
+    
+    private Map<Long, PendingStock> snapshot() {
+        return Map.copyOf(pending);
+    }
+    
+    // Runs the write once every write queued before it has finished; the snapshot is taken then
+    private Mono<Void> serialized(Supplier<Mono<Void>> write) {
+        return Mono.defer(() -> {
+            Sinks.Empty<Void> done = Sinks.empty();
+            Mono<Void> previous = lastWrite.getAndSet(done.asMono());
+            return previous.then(Mono.defer(write))
+                    .doFinally(signal -> previous.subscribe(null, e -> done.tryEmitEmpty(), done::tryEmitEmpty));
+        });
+    }
+    
+    private Mono<Void> write(Map<Long, PendingStock> batch) {
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+        List<StockUpdate> updates = batch.entrySet().stream()
+                .map(entry -> new StockUpdate(entry.getKey(), entry.getValue().stock()))
+                .toList();
+        Timer.Sample sample = Timer.start();
+        return productRepository.updateStocks(Flux.fromIterable(updates))
+                .doOnNext(this::onWritten)
+                .then(Mono.defer(() -> invalidate(batch.values())))
+                .doOnSuccess(v -> {
+                    sample.stop(flushTimer);
+                    log.debug("Flushed {} buffered stock values", batch.size());
+                })
+                .doOnError(e -> {
+                    sample.stop(flushTimer);
+                    log.error("Failed to flush {} buffered stock values: {}", batch.size(), e.getMessage());
+                });
+    }
+    
+    private Mono<Void> invalidate(Collection<PendingStock> written) {
+        if (!cacheTagInvalidator.isEnabled()) {
+            return Mono.empty();
+        }
+        Set<String> tags = new HashSet<>();
+        written.forEach(value -> tags.addAll(value.cacheTags()));
+        return cacheTagInvalidator.invalidate(tags);
+    }
+    
+    private void onWritten(StockUpdateResult result) {
+        // Only drop the entry if no newer value was submitted while the batch was in flight
+        pending.computeIfPresent(result.getProductId(),
+                (productId, value) -> result.getStock() != null && value.stock() == result.getStock() ? null : value);
+        if (result.getStatus() == StockUpdateResult.Status.NOT_FOUND) {
+            log.warn("Dropped buffered stock for product {}: product no longer exists", result.getProductId());
+        }
+    }
+    
+    private record PendingStock(int stock, Collection<String> cacheTags) {
+    }
+}
@@ -0,0 +1,146 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.memory;
+
+import com.retailchain.franchise.domain.port.output.CacheAccessTracker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Approximate per-key read counts in a count-min sketch of fixed size, in the style of
+ * TinyLFU. Counters are halved after every sample of width * 10 reads so that keys which
+ * stopped being read lose their standing. With admission enabled, a missed key is only
+ * written to the cache once it has been read min-frequency times.
+ */
+@Slf4j
+@Component
+public class CountMinSketchAccessTracker implements CacheAccessTracker {
+
+    private static final long[] SEEDS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final boolean admissionEnabled;
+    private final int minFrequency;
+    private final int hotKeysSize;
+    private final int width;
+    private final int sampleSize;
+    private final AtomicIntegerArray counters;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    // Candidates for the hot keys report with their estimate when last read
+    private final Map<String, Integer> hotKeys = new ConcurrentHashMap<>();
+    // Never above the lowest estimate in a full hotKeys, so reads at or below it skip the lock
+    private volatile int hotKeyThreshold;
+
+    public CountMinSketchAccessTracker(@Value("${franchise.cache.admission.enabled:false}") boolean admissionEnabled,
+                                       @Value("${franchise.cache.admission.min-frequency:2}") int minFrequency,
+                                       @Value("${franchise.cache.admission.sketch-width:65536}") int sketchWidth,
+                                       @Value("${franchise.cache.admission.hot-keys:50}") int hotKeysSize) {
+        this.admissionEnabled = admissionEnabled;
+        this.minFrequency = minFrequency;
+        this.hotKeysSize = hotKeysSize;
+        this.width = Integer.highestOneBit(Math.max(sketchWidth, 64) - 1) << 1;
+        this.sampleSize = width * 10;
+        this.counters = new AtomicIntegerArray(width * SEEDS.length);
+    }
+
+    @Override
+    public void record(String key) {
+        int hash = spread(key.hashCode());
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < SEEDS.length; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(indexOf(hash, row)));
+        }
+        trackHotKey(key, estimate);
+        if (additions.incrementAndGet() >= sampleSize) {
+            age();
+        }
+    }
+
+    @Override
+    public boolean shouldAdmit(String key) {
+        return !admissionEnabled || frequency(key) >= minFrequency;
+    }
+
+    @Override
+    public Map<String, Integer> hottestKeys(int limit) {
+        Map<String, Integer> hottest = new LinkedHashMap<>();
+        hotKeys.keySet().stream()
+            .map(key -> Map.entry(key, frequency(key)))
+            .filter(entry -> entry.getValue() > 0)
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+            .limit(limit)
+            .forEach(entry -> hottest.put(entry.getKey(), entry.getValue()));
+        return hottest;
+    }
+
+    int frequency(String key) {
+        int hash = spread(key.hashCode());
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < SEEDS.length; row++) {
+            estimate = Math.min(estimate, counters.get(indexOf(hash, row)));
+        }
+        return estimate;
+    }
+
+    private void trackHotKey(String key, int estimate) {
+        if (hotKeys.containsKey(key) || hotKeys.size() < hotKeysSize) {
+            hotKeys.put(key, estimate);
+            return;
+        }
+        if (estimate <= hotKeyThreshold) {
+            return;
+        }
+        synchronized (hotKeys) {
+            Map.Entry<String, Integer> coldest = coldestHotKey();
+            if (coldest != null && coldest.getValue() < estimate) {
+                hotKeys.remove(coldest.getKey());
+                hotKeys.put(key, estimate);
+                coldest = coldestHotKey();
+            }
+            // Estimates of hot keys only grow between agings, so the minimum stays a lower bound
+            hotKeyThreshold = coldest != null ? coldest.getValue() : 0;
+        }
+    }
+
+    private Map.Entry<String, Integer> coldestHotKey() {
+        return hotKeys.entrySet().stream()
+            .min(Comparator.comparingInt(Map.Entry::getValue))
+            .orElse(null);
+    }
+
+    // Concurrent readers may add a few increments to a halved counter, which only skews estimates slightly
+    private synchronized void age() {
+        if (additions.get() < sampleSize) {
+            return;
+        }
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, counters.get(i) >>> 1);
+        }
+        synchronized (hotKeys) {
+            hotKeys.replaceAll((key, estimate) -> estimate >>> 1);
+            hotKeyThreshold >>>= 1;
+        }
+        additions.set(0);
+        log.debug("Aged cache access sketch");
+    }
+
+    private int indexOf(int hash, int row) {
+        long mixed = (hash + SEEDS[row]) * SEEDS[row];
+        mixed += mixed >>> 32;
+        return row * width + ((int) mixed & (width - 1));
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 17;
+        hash *= 0xED5AD4BB;
+        hash ^= hash >>> 11;
+        return hash;
+    }
+}
@@ -0,0 +1,138 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.memory;
+
+import com.retailchain.franchise.domain.port.output.WriteRateTracker;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Picks cache TTLs from the observed write interval of each key, smoothed with an
+ * exponentially weighted moving average. The TTL is a fraction of the interval, clamped
+ * to [min-ttl, max-ttl]; a key idle for longer than its average interval is treated as
+ * having slowed down. Keys not written since the tracker started get max-ttl once the
+ * tracker has been observing for max-ttl, and the default TTL before that.
+ */
+@Slf4j
+@Component
+public class EwmaWriteRateTracker implements WriteRateTracker {
+    
+    private static final double SMOOTHING = 0.3;
+    
+    private final boolean enabled;
+    private final Duration minTtl;
+    private final Duration maxTtl;
+    private final double intervalRatio;
+    private final int maxKeys;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final long startedAt;
+    
+    private final Map<String, WriteStats> stats = new ConcurrentHashMap<>();
+    // Built once per cache namespace, so recording a TTL skips the registry lookup
+    private final Map<String, DistributionSummary> ttlSummaries = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public EwmaWriteRateTracker(@Value("${franchise.cache.adaptive-ttl.enabled:false}") boolean enabled,
+                                @Value("${franchise.cache.adaptive-ttl.min-ttl:30s}") Duration minTtl,
+                                @Value("${franchise.cache.adaptive-ttl.max-ttl:1h}") Duration maxTtl,
+                                @Value("${franchise.cache.adaptive-ttl.interval-ratio:0.5}") double intervalRatio,
+                                @Value("${franchise.cache.adaptive-ttl.max-keys:100000}") int maxKeys,
+                                MeterRegistry meterRegistry) {
+        this(enabled, minTtl, maxTtl, intervalRatio, maxKeys, meterRegistry, Clock.systemUTC());
+    }
+    
+    EwmaWriteRateTracker(boolean enabled, Duration minTtl, Duration maxTtl, double intervalRatio, int maxKeys,
+                         MeterRegistry meterRegistry, Clock clock) {
+        this.enabled = enabled;
+        this.minTtl = minTtl;
+        this.maxTtl = maxTtl;
+        this.intervalRatio = intervalRatio;
+        this.maxKeys = maxKeys;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.startedAt = clock.millis();
+    }
+    
+    @Override
+    public void recordWrite(String key) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.millis();
+        if (stats.size() >= maxKeys && !stats.containsKey(key)) {
+            pruneIdleKeys(now);
+            if (stats.size() >= maxKeys) {
+                return;
+            }
+        }
+        stats.compute(key, (k, previous) -> previous == null
+            ? new WriteStats(now, -1)
+            : previous.next(now));
+    }
+    
+    @Override
+    public Duration ttlFor(String key, Duration defaultTtl) {
+        if (!enabled) {
+            return defaultTtl;
+        }
+        long now = clock.millis();
+        WriteStats writes = stats.get(key);
+        Duration ttl;
+        if (writes == null || writes.averageIntervalMillis() < 0) {
+            // No interval observed yet: only a long quiet period says the key rarely changes
+            long quietSince = writes == null ? startedAt : writes.lastWriteAt();
+            ttl = now - quietSince >= maxTtl.toMillis() ? maxTtl : clamp(defaultTtl);
+        } else {
+            double interval = Math.max(writes.averageIntervalMillis(), now - writes.lastWriteAt());
+            ttl = clamp(Duration.ofMillis((long) (interval * intervalRatio)));
+        }
+        ttlSummaries.computeIfAbsent(namespaceOf(key), this::ttlSummary).record(ttl.toSeconds());
+        return ttl;
+    }
+    
+    private DistributionSummary ttlSummary(String namespace) {
+        return DistributionSummary.builder("franchise.cache.ttl")
+            .baseUnit("seconds")
+            .tag("cache", namespace)
+            .publishPercentiles(0.5, 0.95)
+            .register(meterRegistry);
+    }
+    
+    private Duration clamp(Duration ttl) {
+        if (ttl.compareTo(minTtl) < 0) {
+            return minTtl;
+        }
+        return ttl.compareTo(maxTtl) > 0 ? maxTtl : ttl;
+    }
+    
+    // Keys quiet for max-ttl get max-ttl anyway, so forgetting them changes nothing
+    private void pruneIdleKeys(long now) {
+        int before = stats.size();
+        stats.values().removeIf(writes -> now - writes.lastWriteAt() >= maxTtl.toMillis());
+        log.debug("Pruned {} idle keys from write-rate tracker", before - stats.size());
+    }
+    
+    private static String namespaceOf(String key) {
+        int separator = key.indexOf(':');
+        return separator > 0 ? key.substring(0, separator) : key;
+    }
+    
+    // averageIntervalMillis is -1 until a second write is seen
+    private record WriteStats(long lastWriteAt, double averageIntervalMillis) {
+    
+        WriteStats next(long now) {
+            long interval = Math.max(now - lastWriteAt, 0);
+            double average = averageIntervalMillis < 0
+                ? interval
+                : SMOOTHING * interval + (1 - SMOOTHING) * averageIntervalMillis;
+            return new WriteStats(now, average);
+        }
+    }
+}
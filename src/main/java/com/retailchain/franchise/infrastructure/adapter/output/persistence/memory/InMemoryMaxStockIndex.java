@@ -0,0 +1,230 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.memory;
+
+import com.retailchain.franchise.domain.model.Product;
+import com.retailchain.franchise.domain.port.output.MaxStockIndex;
+import com.retailchain.franchise.domain.port.output.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read model for the max-stock report kept in memory and maintained by the product
+ * write paths. Only writes that go through this node are seen, so it is meant for
+ * single-instance deployments (franchise.stock-index.enabled).
+ */
+@Slf4j
+@Component
+public class InMemoryMaxStockIndex implements MaxStockIndex {
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+
+    private final Map<Long, BranchStock> branches = new ConcurrentHashMap<>();
+    private final Map<Long, Long> productBranches = new ConcurrentHashMap<>();
+
+    // Writes that arrive while the initial load is still streaming rows
+    private final Map<Long, Integer> stockWhileLoading = new ConcurrentHashMap<>();
+    private final Set<Long> removedWhileLoading = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public InMemoryMaxStockIndex(ProductRepository productRepository,
+                                 @Value("${franchise.stock-index.enabled:false}") boolean enabled) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        loading = true;
+        log.info("Loading max-stock index from products table");
+        productRepository.findAll()
+            .doOnNext(this::loadProduct)
+            .count()
+            .subscribe(
+                count -> {
+                    ready = true;
+                    loading = false;
+                    stockWhileLoading.clear();
+                    removedWhileLoading.clear();
+                    log.info("Max-stock index ready with {} products in {} branches", count, branches.size());
+                },
+                error -> {
+                    loading = false;
+                    log.error("Failed to load max-stock index, report will use the database: {}", error.getMessage());
+                }
+            );
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void put(Product product) {
+        if (!enabled || product.getId() == null || product.getBranchId() == null) {
+            return;
+        }
+        Long previousBranch = productBranches.put(product.getId(), product.getBranchId());
+        if (previousBranch != null && !previousBranch.equals(product.getBranchId())) {
+            removeFromBranch(previousBranch, product.getId());
+        }
+        branches.computeIfAbsent(product.getBranchId(), id -> new BranchStock())
+            .put(product.getId(), product.getName(), product.getStock() != null ? product.getStock() : 0);
+    }
+
+    @Override
+    public void updateStock(Long productId, int stock) {
+        if (!enabled) {
+            return;
+        }
+        Long branchId = productBranches.get(productId);
+        if (branchId == null) {
+            if (loading) {
+                stockWhileLoading.put(productId, stock);
+            }
+            return;
+        }
+        BranchStock branch = branches.get(branchId);
+        if (branch != null) {
+            branch.updateStock(productId, stock);
+        }
+    }
+
+    @Override
+    public void remove(Long productId) {
+        if (!enabled) {
+            return;
+        }
+        if (loading) {
+            removedWhileLoading.add(productId);
+        }
+        Long branchId = productBranches.remove(productId);
+        if (branchId != null) {
+            removeFromBranch(branchId, productId);
+        }
+    }
+
+    @Override
+    public List<Product> findMaxStockProducts(Long branchId) {
+        BranchStock branch = branches.get(branchId);
+        return branch != null ? branch.maxStockProducts(branchId) : List.of();
+    }
+
+    private void loadProduct(Product product) {
+        if (removedWhileLoading.contains(product.getId()) || productBranches.containsKey(product.getId())) {
+            return;
+        }
+        Integer newerStock = stockWhileLoading.remove(product.getId());
+        if (newerStock != null) {
+            product.setStock(newerStock);
+        }
+        put(product);
+    }
+
+    private void removeFromBranch(Long branchId, Long productId) {
+        BranchStock branch = branches.get(branchId);
+        if (branch != null) {
+            branch.remove(productId);
+        }
+    }
+
+    /**
+     * All products of one branch plus the ids currently holding the max stock.
+     * The max is only rescanned when its last holder drops below it or is removed.
+     */
+    private static final class BranchStock {
+        private final Map<Long, Entry> products = new HashMap<>();
+        private final Set<Long> maxIds = new HashSet<>();
+        private int maxStock = Integer.MIN_VALUE;
+
+        synchronized void put(Long productId, String name, int stock) {
+            Entry entry = products.get(productId);
+            if (entry == null) {
+                products.put(productId, new Entry(name, stock));
+            } else {
+                entry.name = name;
+                entry.stock = stock;
+            }
+            onStockChanged(productId, stock);
+        }
+
+        synchronized void updateStock(Long productId, int stock) {
+            Entry entry = products.get(productId);
+            if (entry != null) {
+                entry.stock = stock;
+                onStockChanged(productId, stock);
+            }
+        }
+
+        synchronized void remove(Long productId) {
+            if (products.remove(productId) != null && maxIds.remove(productId) && maxIds.isEmpty()) {
+                recomputeMax();
+            }
+        }
+
+        synchronized List<Product> maxStockProducts(Long branchId) {
+            List<Product> result = new ArrayList<>(maxIds.size());
+            for (Long id : maxIds) {
+                Entry entry = products.get(id);
+                result.add(Product.builder()
+                        .id(id)
+                        .name(entry.name)
+                        .stock(entry.stock)
+                        .branchId(branchId)
+                        .build());
+            }
+            return result;
+        }
+
+        private void onStockChanged(Long productId, int stock) {
+            if (stock > maxStock) {
+                maxStock = stock;
+                maxIds.clear();
+                maxIds.add(productId);
+            } else if (stock == maxStock) {
+                maxIds.add(productId);
+            } else if (maxIds.remove(productId) && maxIds.isEmpty()) {
+                recomputeMax();
+            }
+        }
+
+        private void recomputeMax() {
+            maxStock = Integer.MIN_VALUE;
+            maxIds.clear();
+            products.forEach((id, entry) -> {
+                if (entry.stock > maxStock) {
+                    maxStock = entry.stock;
+                    maxIds.clear();
+                    maxIds.add(id);
+                } else if (entry.stock == maxStock) {
+                    maxIds.add(id);
+                }
+            });
+        }
+    }
+
+    private static final class Entry {
+        private String name;
+        private int stock;
+
+        Entry(String name, int stock) {
+            this.name = name;
+            this.stock = stock;
+        }
+    }
+}
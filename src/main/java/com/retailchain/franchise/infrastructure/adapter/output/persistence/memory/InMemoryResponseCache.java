@@ -0,0 +1,241 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.memory;
+
+import com.retailchain.franchise.domain.port.output.CacheTagInvalidator;
+import com.retailchain.franchise.infrastructure.adapter.output.persistence.redis.RedisCircuitBreaker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Encoded response bodies of hot GET endpoints, held per node and indexed by tag.
+ * Invalidations are applied locally and broadcast on a Redis channel so the other
+ * nodes drop the same tags; entries also expire after the TTL in case a message is lost.
+ * Broadcasts are skipped while the Redis circuit breaker is open, and the cache is cleared
+ * when it closes since invalidations from other nodes were lost in the meantime.
+ * <p>
+ * At max-entries the oldest entry is evicted. All entries share one TTL, so the
+ * insertion order kept for this is also their expiry order.
+ */
+@Slf4j
+@Component
+public class InMemoryResponseCache implements CacheTagInvalidator {
+
+    static final String INVALIDATION_CHANNEL = "franchise:cache:tag-invalidations";
+    private static final char SEPARATOR = '|';
+    private static final String ALL_TAGS = "*";
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> keysByTag = new ConcurrentHashMap<>();
+    // Entries that were replaced or removed are skipped when they reach the head
+    private final Queue<Queued> insertionOrder = new ConcurrentLinkedQueue<>();
+    // Bumped by every invalidation, so a response rendered across one is not stored
+    private final AtomicLong epoch = new AtomicLong();
+    private Disposable subscription;
+
+    public InMemoryResponseCache(@Qualifier("reactiveRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate,
+                                 RedisCircuitBreaker circuitBreaker,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${franchise.response-cache.enabled:false}") boolean enabled,
+                                 @Value("${franchise.response-cache.ttl:5m}") Duration ttl,
+                                 @Value("${franchise.response-cache.max-entries:10000}") int maxEntries) {
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        Gauge.builder("franchise.http.response_cache.entries", entries, Map::size)
+                .description("Encoded responses held by the response cache")
+                .register(meterRegistry);
+        circuitBreaker.onClose(this::clear);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        if (!enabled) {
+            return;
+        }
+        subscription = redisTemplate.listenToChannel(INVALIDATION_CHANNEL)
+                .map(ReactiveSubscription.Message::getMessage)
+                .doOnNext(this::onInvalidation)
+                .doOnError(e -> {
+                    // Messages may have been missed while disconnected
+                    log.warn("Response cache invalidation channel failed, clearing cache: {}", e.getMessage());
+                    clear();
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30)))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void unsubscribe() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public Mono<Void> invalidate(Collection<String> tags) {
+        if (!enabled || tags.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> removeTags(tags))
+                .then(publish(String.join(",", tags)));
+    }
+
+    @Override
+    public Mono<Void> invalidateAll() {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(this::clear)
+                .then(publish(ALL_TAGS));
+    }
+
+    public long epoch() {
+        return epoch.get();
+    }
+
+    public CachedResponse get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            remove(key, entry);
+            return null;
+        }
+        return entry.response();
+    }
+
+    // Skipped when an invalidation happened after startEpoch was read
+    public void put(String key, Set<String> tags, CachedResponse response, long startEpoch) {
+        long now = System.currentTimeMillis();
+        Entry entry = new Entry(response, tags, now + ttl.toMillis());
+        tags.forEach(tag -> keysByTag.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(key));
+        entries.put(key, entry);
+        insertionOrder.add(new Queued(key, entry));
+        evict(now);
+        // Re-checked after indexing, so an invalidation racing with this put always sees the entry
+        if (epoch.get() != startEpoch) {
+            remove(key, entry);
+        }
+    }
+
+    private void removeTags(Collection<String> tags) {
+        epoch.incrementAndGet();
+        for (String tag : tags) {
+            Set<String> keys = keysByTag.remove(tag);
+            if (keys != null) {
+                keys.forEach(this::remove);
+            }
+        }
+    }
+
+    private void clear() {
+        epoch.incrementAndGet();
+        entries.clear();
+        keysByTag.clear();
+        insertionOrder.clear();
+    }
+
+    private void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            unindex(key, removed);
+        }
+    }
+
+    // Only removes the given entry, not one that replaced it under the same key
+    private void remove(String key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            unindex(key, entry);
+        }
+    }
+
+    private void unindex(String key, Entry entry) {
+        entry.tags().forEach(tag -> {
+            Set<String> keys = keysByTag.get(tag);
+            if (keys != null) {
+                keys.remove(key);
+            }
+        });
+    }
+
+    // Drops replaced and expired entries at the head of the queue, then the oldest while over capacity
+    private void evict(long now) {
+        synchronized (insertionOrder) {
+            Queued oldest;
+            while ((oldest = insertionOrder.peek()) != null) {
+                boolean current = entries.get(oldest.key()) == oldest.entry();
+                if (current && oldest.entry().expiresAt() > now && entries.size() <= maxEntries) {
+                    return;
+                }
+                insertionOrder.poll();
+                remove(oldest.key(), oldest.entry());
+            }
+        }
+    }
+
+    private Mono<Void> publish(String tags) {
+        Mono<Void> publish = Mono.defer(() -> redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + SEPARATOR + tags))
+                .doOnError(e -> log.warn("Failed to publish response cache invalidation for {}: {}", tags, e.getMessage()))
+                .then();
+        return circuitBreaker.execute("PUBLISH", publish, Mono.empty());
+    }
+
+    private void onInvalidation(String message) {
+        int separator = message.indexOf(SEPARATOR);
+        if (separator < 0 || message.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        String tags = message.substring(separator + 1);
+        if (ALL_TAGS.equals(tags)) {
+            clear();
+        } else {
+            removeTags(Arrays.asList(tags.split(",")));
+        }
+        log.debug("Response cache tags invalidated by another node: {}", tags);
+    }
+
+    public record CachedResponse(int status, String contentType, byte[] body) {
+    }
+
+    private record Entry(CachedResponse response, Set<String> tags, long expiresAt) {
+    }
+
+    private record Queued(String key, Entry entry) {
+    }
+}
@@ -4,16 +4,22 @@ import com.retailchain.franchise.domain.model.Branch;
 import com.retailchain.franchise.domain.port.output.BranchRepository;
 import com.retailchain.franchise.infrastructure.adapter.output.persistence.mysql.entity.BranchEntity;
 import com.retailchain.franchise.infrastructure.adapter.output.persistence.mysql.repository.BranchR2dbcRepository;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Component
-@RequiredArgsConstructor
 public class BranchRepositoryAdapter implements BranchRepository {
     
     private final BranchR2dbcRepository repository;
+    private final int prefetch;
+    
+    public BranchRepositoryAdapter(BranchR2dbcRepository repository,
+                                   @Value("${franchise.streaming.prefetch:256}") int prefetch) {
+        this.repository = repository;
+        this.prefetch = prefetch;
+    }
     
     @Override
     public Mono<Branch> save(Branch branch) {
@@ -31,6 +37,13 @@ public class BranchRepositoryAdapter implements BranchRepository {
         return repository.findByFranchiseId(franchiseId).map(this::toDomain);
     }
     
+    @Override
+    public Flux<Branch> findByFranchiseId(Long franchiseId, Long afterId, int limit) {
+        return repository.findPageByFranchiseId(franchiseId, afterId != null ? afterId : 0L, limit)
+                .limitRate(prefetch)
+                .map(this::toDomain);
+    }
+    
     @Override
     public Mono<Branch> update(Branch branch) {
         BranchEntity entity = toEntity(branch);
@@ -4,16 +4,23 @@ import com.retailchain.franchise.domain.model.Franchise;
 import com.retailchain.franchise.domain.port.output.FranchiseRepository;
 import com.retailchain.franchise.infrastructure.adapter.output.persistence.mysql.entity.FranchiseEntity;
 import com.retailchain.franchise.infrastructure.adapter.output.persistence.mysql.repository.FranchiseR2dbcRepository;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import java.util.Collection;
 
 @Component
-@RequiredArgsConstructor
 public class FranchiseRepositoryAdapter implements FranchiseRepository {
     
     private final FranchiseR2dbcRepository repository;
+    private final int prefetch;
+    
+    public FranchiseRepositoryAdapter(FranchiseR2dbcRepository repository,
+                                      @Value("${franchise.streaming.prefetch:256}") int prefetch) {
+        this.repository = repository;
+        this.prefetch = prefetch;
+    }
     
     @Override
     public Mono<Franchise> save(Franchise franchise) {
@@ -27,8 +34,15 @@ public class FranchiseRepositoryAdapter implements FranchiseRepository {
     }
     
     @Override
-    public Flux<Franchise> findAll() {
-        return repository.findAll().map(this::toDomain);
+    public Flux<Franchise> findAllById(Collection<Long> ids) {
+        return repository.findAllById(ids).map(this::toDomain);
+    }
+    
+    @Override
+    public Flux<Franchise> findAll(Long afterId, int limit) {
+        return repository.findPage(afterId != null ? afterId : 0L, limit)
+                .limitRate(prefetch)
+                .map(this::toDomain);
     }
     
     @Override
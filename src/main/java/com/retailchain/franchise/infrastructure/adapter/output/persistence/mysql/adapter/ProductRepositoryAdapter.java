@@ -1,19 +1,57 @@
 package com.retailchain.franchise.infrastructure.adapter.output.persistence.mysql.adapter;
 
 import com.retailchain.franchise.domain.model.Product;
+import com.retailchain.franchise.domain.model.StockUpdate;
+import com.retailchain.franchise.domain.model.StockUpdateResult;
 import com.retailchain.franchise.domain.port.output.ProductRepository;
 import com.retailchain.franchise.infrastructure.adapter.output.persistence.mysql.entity.ProductEntity;
 import com.retailchain.franchise.infrastructure.adapter.output.persistence.mysql.repository.ProductR2dbcRepository;
-import lombok.RequiredArgsConstructor;
+import io.r2dbc.spi.Result;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
-@RequiredArgsConstructor
 public class ProductRepositoryAdapter implements ProductRepository {
     
+    private static final String INSERT_PREFIX = 
+            "INSERT INTO products (name, stock, branch_id, created_at, updated_at) VALUES ";
+    
+    // LAST_INSERT_ID(expr) hands the new stock back in the OK packet of the UPDATE,
+    // so the guarded increment and reading its result take a single round trip
+    private static final String ADJUST_STOCK = 
+            "UPDATE products SET stock = LAST_INSERT_ID(stock + ?), updated_at = ? WHERE id = ? AND stock + ? >= 0";
+    
     private final ProductR2dbcRepository repository;
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final int insertBatchSize;
+    private final int updateBatchSize;
+    private final int prefetch;
+    
+    public ProductRepositoryAdapter(ProductR2dbcRepository repository,
+                                    DatabaseClient databaseClient,
+                                    TransactionalOperator transactionalOperator,
+                                    @Value("${franchise.batch.insert-size:500}") int insertBatchSize,
+                                    @Value("${franchise.batch.update-size:500}") int updateBatchSize,
+                                    @Value("${franchise.streaming.prefetch:256}") int prefetch) {
+        this.repository = repository;
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.insertBatchSize = insertBatchSize;
+        this.updateBatchSize = updateBatchSize;
+        this.prefetch = prefetch;
+    }
     
     @Override
     public Mono<Product> save(Product product) {
@@ -21,30 +59,160 @@ public class ProductRepositoryAdapter implements ProductRepository {
         return repository.save(entity).map(this::toDomain);
     }
     
+    @Override
+    public Flux<Product> saveAll(Flux<Product> products) {
+        return products.buffer(insertBatchSize)
+                .concatMap(this::insertBatch);
+    }
+    
     @Override
     public Mono<Product> findById(Long id) {
         return repository.findById(id).map(this::toDomain);
     }
     
+    @Override
+    public Flux<Product> findAllById(Collection<Long> ids) {
+        return repository.findAllById(ids).map(this::toDomain);
+    }
+    
     @Override
     public Flux<Product> findByBranchId(Long branchId) {
         return repository.findByBranchId(branchId).map(this::toDomain);
     }
     
+    @Override
+    public Flux<Product> findByBranchId(Long branchId, Long afterId, int limit) {
+        return repository.findPageByBranchId(branchId, afterId != null ? afterId : 0L, limit)
+                .limitRate(prefetch)
+                .map(this::toDomain);
+    }
+    
+    @Override
+    public Flux<Product> findAll() {
+        return repository.findAll().map(this::toDomain);
+    }
+    
     @Override
     public Mono<Product> update(Product product) {
         ProductEntity entity = toEntity(product);
         return repository.save(entity).map(this::toDomain);
     }
     
+    @Override
+    public Flux<StockUpdateResult> updateStocks(Flux<StockUpdate> updates) {
+        return updates.buffer(updateBatchSize)
+                .concatMap(this::updateStockBatch);
+    }
+    
+    @Override
+    public Mono<Integer> adjustStock(Long productId, int delta) {
+        return databaseClient.inConnection(connection -> Flux.from(connection.createStatement(ADJUST_STOCK)
+                        .bind(0, delta)
+                        .bind(1, LocalDateTime.now())
+                        .bind(2, productId)
+                        .bind(3, delta)
+                        .returnGeneratedValues("stock")
+                        .execute())
+                .concatMap(result -> result.flatMap(this::adjustedStock))
+                .next());
+    }
+    
     @Override
     public Mono<Void> deleteById(Long id) {
         return repository.deleteById(id);
     }
     
-    @Override
-    public Flux<Product> findProductsWithMaxStockByBranches(Flux<Long> branchIds) {
-        return repository.findProductsWithMaxStockByBranches(branchIds).map(this::toDomain);
+    private Flux<Product> insertBatch(List<Product> batch) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < batch.size(); i++) {
+            sql.append(i == 0 ? "" : ", ")
+               .append("(:name").append(i)
+               .append(", :stock").append(i)
+               .append(", :branchId").append(i)
+               .append(", :createdAt").append(i)
+               .append(", :updatedAt").append(i)
+               .append(')');
+        }
+        
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < batch.size(); i++) {
+            Product product = batch.get(i);
+            spec = spec.bind("name" + i, product.getName())
+                    .bind("stock" + i, product.getStock())
+                    .bind("branchId" + i, product.getBranchId())
+                    .bind("createdAt" + i, product.getCreatedAt())
+                    .bind("updatedAt" + i, product.getUpdatedAt());
+        }
+        
+        // A multi-row INSERT reports the id of its first row; InnoDB allocates the
+        // ids of a simple insert as one consecutive block (auto_increment_increment = 1)
+        return spec.filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .first()
+                .flatMapIterable(firstId -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.get(i).setId(firstId + i);
+                    }
+                    return batch;
+                });
+    }
+    
+    private Flux<StockUpdateResult> updateStockBatch(List<StockUpdate> batch) {
+        // Last value wins when a product appears more than once in the same chunk
+        Map<Long, Integer> stocks = new LinkedHashMap<>();
+        batch.forEach(update -> stocks.put(update.getProductId(), update.getStock()));
+        List<Long> ids = List.copyOf(stocks.keySet());
+        
+        StringBuilder sql = new StringBuilder("UPDATE products SET stock = CASE id");
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(" WHEN :id").append(i).append(" THEN :stock").append(i);
+        }
+        sql.append(" END, updated_at = :updatedAt WHERE id IN (:ids)");
+        
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .bind("updatedAt", LocalDateTime.now())
+                .bind("ids", ids);
+        for (int i = 0; i < ids.size(); i++) {
+            spec = spec.bind("id" + i, ids.get(i))
+                    .bind("stock" + i, stocks.get(ids.get(i)));
+        }
+        
+        // Existing ids are only read back when some of the chunk did not match
+        Flux<StockUpdateResult> results = spec.fetch().rowsUpdated()
+                .flatMap(updatedRows -> updatedRows == ids.size()
+                        ? Mono.just(Set.copyOf(ids))
+                        : findExistingIds(ids))
+                .flatMapIterable(existing -> ids.stream()
+                        .map(id -> StockUpdateResult.builder()
+                                .productId(id)
+                                .stock(stocks.get(id))
+                                .status(existing.contains(id)
+                                        ? StockUpdateResult.Status.UPDATED
+                                        : StockUpdateResult.Status.NOT_FOUND)
+                                .build())
+                        .toList());
+        
+        return transactionalOperator.transactional(results);
+    }
+    
+    // Empty when the guard rejected the update or the product does not exist
+    private Mono<Integer> adjustedStock(Result.Segment segment) {
+        if (segment instanceof Result.Message message) {
+            return Mono.error(message.exception());
+        }
+        if (segment instanceof Result.UpdateCount count && count.value() > 0
+                && segment instanceof Result.RowSegment rowSegment) {
+            return Mono.just(rowSegment.row().get(0, Long.class).intValue());
+        }
+        return Mono.empty();
+    }
+    
+    private Mono<Set<Long>> findExistingIds(List<Long> ids) {
+        return databaseClient.sql("SELECT id FROM products WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .map(row -> row.get("id", Long.class))
+                .all()
+                .collect(Collectors.toSet());
     }
     
     private ProductEntity toEntity(Product product) {
@@ -0,0 +1,56 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.mysql.adapter;
+
+import com.retailchain.franchise.application.dto.StockReportDto;
+import com.retailchain.franchise.domain.port.output.StockReportRepository;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+@Component
+public class StockReportRepositoryAdapter implements StockReportRepository {
+    
+    // The correlated MAX is resolved on idx_product_branch_stock (branch_id, stock)
+    private static final String MAX_STOCK_BY_FRANCHISE = """
+        SELECT p.id AS product_id, p.name AS product_name, p.stock AS stock,
+               b.id AS branch_id, b.name AS branch_name,
+               f.id AS franchise_id, f.name AS franchise_name
+        FROM franchises f
+        INNER JOIN branches b ON b.franchise_id = f.id
+        INNER JOIN products p ON p.branch_id = b.id
+        WHERE f.id = :franchiseId
+          AND p.stock = (SELECT MAX(mp.stock) FROM products mp WHERE mp.branch_id = b.id)
+        ORDER BY b.id, p.id
+        """;
+    
+    private final DatabaseClient databaseClient;
+    private final int prefetch;
+    
+    public StockReportRepositoryAdapter(DatabaseClient databaseClient,
+                                        @Value("${franchise.streaming.prefetch:256}") int prefetch) {
+        this.databaseClient = databaseClient;
+        this.prefetch = prefetch;
+    }
+    
+    @Override
+    public Flux<StockReportDto> findMaxStockProductsByFranchise(Long franchiseId) {
+        return databaseClient.sql(MAX_STOCK_BY_FRANCHISE)
+                .bind("franchiseId", franchiseId)
+                .map((row, metadata) -> toReport(row))
+                .all()
+                .limitRate(prefetch);
+    }
+    
+    private StockReportDto toReport(Row row) {
+        return StockReportDto.builder()
+                .productId(row.get("product_id", Long.class))
+                .productName(row.get("product_name", String.class))
+                .stock(row.get("stock", Integer.class))
+                .branchId(row.get("branch_id", Long.class))
+                .branchName(row.get("branch_name", String.class))
+                .franchiseId(row.get("franchise_id", Long.class))
+                .franchiseName(row.get("franchise_name", String.class))
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.retailchain.franchise.infrastructure.adapter.output.persistence.mysql.repository;
 
 import com.retailchain.franchise.infrastructure.adapter.output.persistence.mysql.entity.BranchEntity;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
@@ -8,4 +9,12 @@ import reactor.core.publisher.Flux;
 @Repository
 public interface BranchR2dbcRepository extends ReactiveCrudRepository<BranchEntity, Long> {
     Flux<BranchEntity> findByFranchiseId(Long franchiseId);
+    
+    // Range seek on idx_branch_franchise, which carries the primary key
+    @Query("""
+        SELECT * FROM branches
+        WHERE franchise_id = :franchiseId AND id > :afterId
+        ORDER BY id LIMIT :limit
+        """)
+    Flux<BranchEntity> findPageByFranchiseId(Long franchiseId, long afterId, int limit);
 }
\ No newline at end of file
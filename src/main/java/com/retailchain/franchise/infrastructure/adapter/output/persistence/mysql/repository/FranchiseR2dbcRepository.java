@@ -1,9 +1,14 @@
 package com.retailchain.franchise.infrastructure.adapter.output.persistence.mysql.repository;
 
 import com.retailchain.franchise.infrastructure.adapter.output.persistence.mysql.entity.FranchiseEntity;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 
 @Repository
 public interface FranchiseR2dbcRepository extends ReactiveCrudRepository<FranchiseEntity, Long> {
+    
+    @Query("SELECT * FROM franchises WHERE id > :afterId ORDER BY id LIMIT :limit")
+    Flux<FranchiseEntity> findPage(long afterId, int limit);
 }
\ No newline at end of file
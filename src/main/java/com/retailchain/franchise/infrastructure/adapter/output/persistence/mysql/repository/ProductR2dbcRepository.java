@@ -10,16 +10,11 @@ import reactor.core.publisher.Flux;
 public interface ProductR2dbcRepository extends ReactiveCrudRepository<ProductEntity, Long> {
     Flux<ProductEntity> findByBranchId(Long branchId);
     
+    // Range seek on idx_product_branch, which carries the primary key
     @Query("""
-        SELECT p.* FROM products p
-        INNER JOIN (
-            SELECT branch_id, MAX(stock) as max_stock
-            FROM products
-            WHERE branch_id IN (:branchIds)
-            GROUP BY branch_id
-        ) max_products
-        ON p.branch_id = max_products.branch_id 
-        AND p.stock = max_products.max_stock
+        SELECT * FROM products
+        WHERE branch_id = :branchId AND id > :afterId
+        ORDER BY id LIMIT :limit
         """)
-    Flux<ProductEntity> findProductsWithMaxStockByBranches(Flux<Long> branchIds);
+    Flux<ProductEntity> findPageByBranchId(Long branchId, long afterId, int limit);
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.redis;
+
+import java.io.IOException;
+
+/**
+ * Turns cached values into the bytes stored in Redis and back.
+ */
+public interface CacheValueCodec {
+    byte[] encode(Object value) throws IOException;
+    <T> T decode(byte[] bytes, Class<T> type) throws IOException;
+}
@@ -0,0 +1,85 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.redis;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded in-process cache. Keys are spread over LRU segments so readers of
+ * different keys rarely contend on the same lock.
+ */
+class LocalCache {
+    
+    private static final int SEGMENTS = 16;
+    
+    private final Segment[] segments = new Segment[SEGMENTS];
+    
+    LocalCache(int maxSize) {
+        int segmentSize = Math.max(1, maxSize / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+    
+    Object get(String key) {
+        return segmentFor(key).get(key, System.currentTimeMillis());
+    }
+    
+    void put(String key, Object value, Duration ttl) {
+        segmentFor(key).put(key, new Entry(value, System.currentTimeMillis() + ttl.toMillis()));
+    }
+    
+    void remove(String key) {
+        segmentFor(key).remove(key);
+    }
+    
+    void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+    
+    private Segment segmentFor(String key) {
+        return segments[(key.hashCode() & Integer.MAX_VALUE) % SEGMENTS];
+    }
+    
+    private record Entry(Object value, long expiresAt) {
+    }
+    
+    private static final class Segment {
+        private final Map<String, Entry> entries;
+        
+        Segment(int maxSize) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+        
+        synchronized Object get(String key, long now) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() <= now) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value();
+        }
+        
+        synchronized void put(String key, Entry entry) {
+            entries.put(key, entry);
+        }
+        
+        synchronized void remove(String key) {
+            entries.remove(key);
+        }
+        
+        synchronized void clear() {
+            entries.clear();
+        }
+    }
+}
@@ -1,34 +1,58 @@
 package com.retailchain.franchise.infrastructure.adapter.output.persistence.redis;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.retailchain.franchise.domain.port.output.CacheRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Component
 public class RedisCacheAdapter implements CacheRepository {
     
-    private final ReactiveRedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper;
+    // Bound on keys remembered for deletion while Redis writes are skipped
+    private static final int MAX_STALE_KEYS = 10_000;
+    private static final RedisScript<Long> DELETE_IF_EQUALS = RedisScript.of(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end",
+            Long.class);
+    private static final RedisScript<Long> EXPIRE_IF_EQUALS = RedisScript.of(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+    
+    private final ReactiveRedisTemplate<String, byte[]> redisTemplate;
+    private final CacheValueCodec codec;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final Set<String> staleKeys = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> pendingIncrements = new ConcurrentHashMap<>();
     
     // Constructor con @Qualifier
-    public RedisCacheAdapter(@Qualifier("reactiveRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate, 
-                            ObjectMapper objectMapper) {
+    public RedisCacheAdapter(@Qualifier("reactiveRedisBytesTemplate") ReactiveRedisTemplate<String, byte[]> redisTemplate, 
+                            CacheValueCodec codec,
+                            RedisCircuitBreaker circuitBreaker) {
         this.redisTemplate = redisTemplate;
-        this.objectMapper = objectMapper;
+        this.codec = codec;
+        this.circuitBreaker = circuitBreaker;
+        circuitBreaker.onClose(this::deleteStaleKeys);
+        circuitBreaker.onClose(this::applyPendingIncrements);
     }
     
     @Override
     public <T> Mono<T> get(String key, Class<T> type) {
-        return redisTemplate.opsForValue().get(key)
+        return circuitBreaker.execute("GET", redisTemplate.opsForValue().get(key), Mono.empty())
                 .flatMap(value -> {
                     try {
-                        T result = objectMapper.readValue(value, type);
+                        T result = codec.decode(value, type);
                         return Mono.just(result);
                     } catch (Exception e) {
                         log.error("Error deserializing cached value for key: {}", key, e);
@@ -41,22 +65,152 @@ public class RedisCacheAdapter implements CacheRepository {
     
     @Override
     public <T> Mono<Void> set(String key, T value, Duration ttl) {
-        return Mono.fromCallable(() -> {
-                    try {
-                        return objectMapper.writeValueAsString(value);
-                    } catch (Exception e) {
-                        throw new RuntimeException("Error serializing value for cache", e);
-                    }
-                })
-                .flatMap(json -> redisTemplate.opsForValue().set(key, json, ttl))
-                .then()
+        return encode(value)
+                .flatMap(bytes -> circuitBreaker.execute("SET",
+                        redisTemplate.opsForValue().set(key, bytes, ttl).then(),
+                        skippedWrite(List.of(key))))
                 .doOnSuccess(v -> log.debug("Cached value for key: {} with TTL: {}", key, ttl));
     }
     
+    @Override
+    public <T> Mono<Boolean> setIfAbsent(String key, T value, Duration ttl) {
+        return encode(value)
+                .flatMap(bytes -> circuitBreaker.execute("SETNX",
+                        redisTemplate.opsForValue().setIfAbsent(key, bytes, ttl), Mono.empty()))
+                .doOnNext(set -> log.debug("Conditional set of key: {} {}", key, set ? "applied" : "skipped"));
+    }
+    
     @Override
     public Mono<Void> delete(String key) {
-        return redisTemplate.delete(key)
-                .then()
+        return circuitBreaker.execute("DEL", redisTemplate.delete(key).then(), skippedWrite(List.of(key)))
                 .doOnSuccess(v -> log.debug("Deleted cache entry for key: {}", key));
     }
+    
+    // Not remembered for recovery when skipped: the keys it guards carry their own TTL
+    @Override
+    public <T> Mono<Boolean> deleteIfEquals(String key, T expected) {
+        return encode(expected)
+                .flatMap(bytes -> circuitBreaker.execute("DEL_IF_EQUALS",
+                        redisTemplate.execute(DELETE_IF_EQUALS, List.of(key), List.of(bytes)).next()
+                                .map(deleted -> deleted > 0),
+                        Mono.empty()))
+                .doOnNext(deleted -> log.debug("Conditional delete of key: {} {}", key, deleted ? "applied" : "skipped"));
+    }
+    
+    @Override
+    public <T> Mono<Boolean> expireIfEquals(String key, T expected, Duration ttl) {
+        byte[] ttlMillis = Long.toString(ttl.toMillis()).getBytes(StandardCharsets.US_ASCII);
+        return encode(expected)
+                .flatMap(bytes -> circuitBreaker.execute("EXPIRE_IF_EQUALS",
+                        redisTemplate.execute(EXPIRE_IF_EQUALS, List.of(key), List.of(bytes, ttlMillis)).next()
+                                .map(expired -> expired > 0),
+                        Mono.empty()))
+                .doOnNext(expired -> log.debug("Conditional expire of key: {} {}", key, expired ? "applied" : "skipped"));
+    }
+    
+    @Override
+    public <T> Mono<Map<String, T>> getAll(Collection<String> keys, Class<T> type) {
+        if (keys.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        List<String> keyList = List.copyOf(keys);
+        return circuitBreaker.execute("MGET", redisTemplate.opsForValue().multiGet(keyList), Mono.empty())
+                .defaultIfEmpty(List.of())
+                .map(values -> {
+                    Map<String, T> result = new LinkedHashMap<>();
+                    for (int i = 0; i < keyList.size(); i++) {
+                        byte[] value = i < values.size() ? values.get(i) : null;
+                        if (value == null || value.length == 0) {
+                            continue;
+                        }
+                        try {
+                            result.put(keyList.get(i), codec.decode(value, type));
+                        } catch (Exception e) {
+                            log.error("Error deserializing cached value for key: {}", keyList.get(i), e);
+                        }
+                    }
+                    return result;
+                })
+                .doOnNext(result -> log.debug("Cache hits for {} of {} keys", result.size(), keyList.size()));
+    }
+    
+    @Override
+    public <T> Mono<Void> setAll(Map<String, T> values, Duration ttl) {
+        // Commands are issued without waiting for each reply, so the connection pipelines them
+        return Flux.fromIterable(values.entrySet())
+                .flatMap(entry -> encode(entry.getValue())
+                        .flatMap(bytes -> circuitBreaker.execute("SET",
+                                redisTemplate.opsForValue().set(entry.getKey(), bytes, ttl).then(),
+                                skippedWrite(List.of(entry.getKey())))))
+                .then()
+                .doOnSuccess(v -> log.debug("Cached {} values with TTL: {}", values.size(), ttl));
+    }
+    
+    @Override
+    public Mono<Void> deleteAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Mono.empty();
+        }
+        return circuitBreaker.execute("DEL", redisTemplate.delete(keys.toArray(String[]::new)).then(),
+                        skippedWrite(keys))
+                .doOnSuccess(v -> log.debug("Deleted {} cache entries", keys.size()));
+    }
+    
+    @Override
+    public Mono<Long> increment(String key, long delta) {
+        return circuitBreaker.execute("INCRBY", redisTemplate.opsForValue().increment(key, delta),
+                        skippedIncrement(key, delta))
+                .doOnNext(value -> log.debug("Counter {} is now {}", key, value));
+    }
+    
+    // Counters are replayed rather than deleted on recovery: a reset counter would bring
+    // back entries written under its earlier values
+    private Mono<Long> skippedIncrement(String key, long delta) {
+        return Mono.fromRunnable(() -> {
+            if (delta != 0) {
+                pendingIncrements.merge(key, delta, Long::sum);
+            }
+        });
+    }
+    
+    private void applyPendingIncrements() {
+        pendingIncrements.keySet().forEach(key -> {
+            Long delta = pendingIncrements.remove(key);
+            if (delta != null) {
+                log.info("Applying increment of {} to {} skipped while Redis was unavailable", delta, key);
+                increment(key, delta).subscribe();
+            }
+        });
+    }
+    
+    // A skipped SET or DEL may leave an older value in Redis, so the key is deleted on recovery
+    private Mono<Void> skippedWrite(Collection<String> keys) {
+        return Mono.fromRunnable(() -> {
+            if (staleKeys.size() + keys.size() <= MAX_STALE_KEYS) {
+                staleKeys.addAll(keys);
+            } else {
+                log.warn("Too many cache keys skipped while Redis was unavailable, {} may stay stale until TTL", keys);
+            }
+        });
+    }
+    
+    private void deleteStaleKeys() {
+        if (staleKeys.isEmpty()) {
+            return;
+        }
+        List<String> keys = List.copyOf(staleKeys);
+        staleKeys.removeAll(keys);
+        log.info("Deleting {} cache keys written while Redis was unavailable", keys.size());
+        deleteAll(keys).subscribe();
+    }
+    
+    private Mono<byte[]> encode(Object value) {
+        return Mono.fromCallable(() -> {
+            try {
+                return codec.encode(value);
+            } catch (Exception e) {
+                throw new RuntimeException("Error serializing value for cache", e);
+            }
+        });
+    }
 }
\ No newline at end of file
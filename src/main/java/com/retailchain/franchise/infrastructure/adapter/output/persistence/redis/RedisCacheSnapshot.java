@@ -0,0 +1,222 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.redis;
+
+import com.retailchain.franchise.application.cache.CacheLoader;
+import com.retailchain.franchise.domain.port.output.CacheAccessTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the hottest cache entries in a memory-mapped file so a restart does not begin
+ * with a cold cache. Every interval the raw Redis bytes and remaining TTL of the most
+ * read keys are written to the file; on startup, before the node reports ready, entries
+ * whose TTL has not run out are put back with SET NX.
+ * <p>
+ * The file is only restored when Redis itself lost its data, detected by a marker key
+ * without TTL. A Redis that kept running may have had keys deleted by writes on other
+ * nodes while this one was down, and restoring those would bring stale values back.
+ * Generation-scoped keys are never saved: a cold Redis restarts every generation at 0.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "franchise.cache.snapshot.enabled", havingValue = "true")
+public class RedisCacheSnapshot implements ApplicationRunner {
+    
+    static final String WARM_MARKER_KEY = "franchise:cache:warm";
+    private static final int MAGIC = 0x46435331;
+    private static final Pattern GENERATION_SCOPED = Pattern.compile(".*:g\\d+:.*");
+    
+    private final ReactiveRedisTemplate<String, byte[]> redisTemplate;
+    private final CacheAccessTracker accessTracker;
+    private final MeterRegistry meterRegistry;
+    private final Path path;
+    private final Duration interval;
+    private final int maxEntries;
+    private final Duration restoreTimeout;
+    private Disposable schedule;
+    
+    public RedisCacheSnapshot(@Qualifier("reactiveRedisBytesTemplate") ReactiveRedisTemplate<String, byte[]> redisTemplate,
+                              CacheAccessTracker accessTracker,
+                              MeterRegistry meterRegistry,
+                              @Value("${franchise.cache.snapshot.path:/tmp/franchise-cache.snapshot}") Path path,
+                              @Value("${franchise.cache.snapshot.interval:1m}") Duration interval,
+                              @Value("${franchise.cache.snapshot.max-entries:1000}") int maxEntries,
+                              @Value("${franchise.cache.snapshot.restore-timeout:10s}") Duration restoreTimeout) {
+        this.redisTemplate = redisTemplate;
+        this.accessTracker = accessTracker;
+        this.meterRegistry = meterRegistry;
+        this.path = path;
+        this.interval = interval;
+        this.maxEntries = maxEntries;
+        this.restoreTimeout = restoreTimeout;
+    }
+    
+    // Runners complete before the readiness state changes to ACCEPTING_TRAFFIC
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            restore().block(restoreTimeout);
+        } catch (RuntimeException e) {
+            log.warn("Cache snapshot restore did not finish, starting with a cold cache: {}", e.getMessage());
+        }
+        schedule = Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> save()
+                        .onErrorResume(e -> {
+                            log.warn("Failed to write cache snapshot: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+        try {
+            save().block(restoreTimeout);
+        } catch (RuntimeException e) {
+            log.warn("Failed to write cache snapshot on shutdown: {}", e.getMessage());
+        }
+    }
+    
+    Mono<Void> save() {
+        List<String> keys = new ArrayList<>();
+        accessTracker.hottestKeys(maxEntries).keySet().stream()
+                .filter(key -> !GENERATION_SCOPED.matcher(key).matches())
+                .forEach(key -> {
+                    keys.add(key);
+                    keys.add(key + CacheLoader.META_SUFFIX);
+                });
+        if (keys.isEmpty()) {
+            // Keep the previous snapshot until this node has seen reads of its own
+            return Mono.empty();
+        }
+        long now = System.currentTimeMillis();
+        return redisTemplate.opsForValue().multiGet(keys)
+                .flatMapMany(values -> Flux.range(0, keys.size())
+                        .filter(i -> values.get(i) != null)
+                        .flatMap(i -> redisTemplate.getExpire(keys.get(i))
+                                .filter(ttl -> !ttl.isZero() && !ttl.isNegative())
+                                .map(ttl -> new Entry(keys.get(i), now + ttl.toMillis(), values.get(i))), 16))
+                .collectList()
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(this::write)
+                .then();
+    }
+    
+    // The marker is set even without a file, so a later restart can tell whether Redis kept its data
+    Mono<Void> restore() {
+        return redisTemplate.opsForValue().setIfAbsent(WARM_MARKER_KEY, new byte[] {1})
+                .flatMap(cold -> {
+                    if (!cold) {
+                        log.info("Redis kept its data, skipping cache snapshot restore");
+                        return Mono.empty();
+                    }
+                    if (!Files.exists(path)) {
+                        return Mono.empty();
+                    }
+                    return Mono.fromCallable(this::read)
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .flatMap(this::putBack);
+                });
+    }
+    
+    private Mono<Void> putBack(List<Entry> entries) {
+        long now = System.currentTimeMillis();
+        List<Entry> live = entries.stream().filter(entry -> entry.expiresAt() > now).toList();
+        meterRegistry.counter("franchise.cache.snapshot.entries", "result", "expired")
+                .increment(entries.size() - live.size());
+        return Flux.fromIterable(live)
+                .flatMap(entry -> redisTemplate.opsForValue()
+                        .setIfAbsent(entry.key(), entry.value(), Duration.ofMillis(entry.expiresAt() - now)), 16)
+                .filter(Boolean::booleanValue)
+                .count()
+                .doOnNext(restored -> {
+                    meterRegistry.counter("franchise.cache.snapshot.entries", "result", "restored").increment(restored);
+                    log.info("Restored {} of {} cache snapshot entries ({} expired)",
+                            restored, entries.size(), entries.size() - live.size());
+                })
+                .then();
+    }
+    
+    private void write(List<Entry> entries) {
+        long size = Integer.BYTES * 2L;
+        List<byte[]> encodedKeys = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            byte[] key = entry.key().getBytes(StandardCharsets.UTF_8);
+            encodedKeys.add(key);
+            size += Integer.BYTES + key.length + Long.BYTES + Integer.BYTES + entry.value().length;
+        }
+        // Written next to the target and moved over it, so a crash never leaves a half-written file
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                buffer.putInt(encodedKeys.get(i).length).put(encodedKeys.get(i))
+                        .putLong(entry.expiresAt())
+                        .putInt(entry.value().length).put(entry.value());
+            }
+            buffer.force();
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote {} cache entries to snapshot {}", entries.size(), path);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write cache snapshot " + path, e);
+        }
+    }
+    
+    private List<Entry> read() {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < Integer.BYTES * 2 || buffer.getInt() != MAGIC) {
+                log.warn("Ignoring cache snapshot {} with unknown format", path);
+                return List.of();
+            }
+            int count = buffer.getInt();
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] key = new byte[buffer.getInt()];
+                buffer.get(key);
+                long expiresAt = buffer.getLong();
+                byte[] value = new byte[buffer.getInt()];
+                buffer.get(value);
+                entries.add(new Entry(new String(key, StandardCharsets.UTF_8), expiresAt, value));
+            }
+            return entries;
+        } catch (IOException | BufferUnderflowException | NegativeArraySizeException e) {
+            log.warn("Ignoring unreadable cache snapshot {}: {}", path, e.toString());
+            return List.of();
+        }
+    }
+    
+    record Entry(String key, long expiresAt, byte[] value) {
+    }
+}
@@ -0,0 +1,135 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.redis;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opens after failure-threshold consecutive Redis calls that failed, timed out or took
+ * longer than latency-budget. While open, cache calls return their fallback without
+ * touching Redis and a background PING every probe-interval closes it again.
+ */
+@Slf4j
+@Component
+public class RedisCircuitBreaker {
+    
+    private final ReactiveRedisConnectionFactory connectionFactory;
+    private final boolean enabled;
+    private final int failureThreshold;
+    private final Duration timeout;
+    private final long latencyBudgetNanos;
+    private final Duration probeInterval;
+    
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean open = new AtomicBoolean();
+    private final List<Runnable> closeListeners = new CopyOnWriteArrayList<>();
+    private volatile Disposable probe;
+    
+    public RedisCircuitBreaker(ReactiveRedisConnectionFactory connectionFactory,
+                               MeterRegistry meterRegistry,
+                               @Value("${franchise.cache.breaker.enabled:true}") boolean enabled,
+                               @Value("${franchise.cache.breaker.failure-threshold:5}") int failureThreshold,
+                               @Value("${franchise.cache.breaker.timeout:250ms}") Duration timeout,
+                               @Value("${franchise.cache.breaker.latency-budget:50ms}") Duration latencyBudget,
+                               @Value("${franchise.cache.breaker.probe-interval:5s}") Duration probeInterval) {
+        this.connectionFactory = connectionFactory;
+        this.enabled = enabled;
+        this.failureThreshold = failureThreshold;
+        this.timeout = timeout;
+        this.latencyBudgetNanos = latencyBudget.toNanos();
+        this.probeInterval = probeInterval;
+        Gauge.builder("franchise.cache.breaker.open", open, state -> state.get() ? 1 : 0)
+                .description("1 while Redis calls are skipped by the circuit breaker")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    void stopProbe() {
+        Disposable current = probe;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+    
+    public boolean isOpen() {
+        return open.get();
+    }
+    
+    /**
+     * Runs the call unless the breaker is open; failures and timeouts resolve to the fallback.
+     */
+    public <T> Mono<T> execute(String operation, Mono<T> call, Mono<T> fallback) {
+        if (!enabled) {
+            return call;
+        }
+        return Mono.defer(() -> {
+            if (open.get()) {
+                return fallback;
+            }
+            long start = System.nanoTime();
+            return call.timeout(timeout)
+                    .doOnSuccess(value -> onSuccess(operation, System.nanoTime() - start))
+                    .onErrorResume(e -> {
+                        onFailure(operation, e.toString());
+                        return fallback;
+                    });
+        });
+    }
+    
+    public void onClose(Runnable listener) {
+        closeListeners.add(listener);
+    }
+    
+    public Mono<Boolean> ping() {
+        return Mono.usingWhen(
+                        Mono.fromSupplier(connectionFactory::getReactiveConnection),
+                        ReactiveRedisConnection::ping,
+                        ReactiveRedisConnection::closeLater)
+                .timeout(timeout)
+                .map("PONG"::equalsIgnoreCase)
+                .onErrorReturn(false);
+    }
+    
+    private void onSuccess(String operation, long elapsedNanos) {
+        if (elapsedNanos > latencyBudgetNanos) {
+            onFailure(operation, "latency " + Duration.ofNanos(elapsedNanos).toMillis() + "ms over budget");
+        } else {
+            consecutiveFailures.set(0);
+        }
+    }
+    
+    private void onFailure(String operation, String reason) {
+        int failures = consecutiveFailures.incrementAndGet();
+        log.debug("Redis {} failed ({} in a row): {}", operation, failures, reason);
+        if (failures >= failureThreshold && open.compareAndSet(false, true)) {
+            log.warn("Redis circuit opened after {} consecutive failures, last: {}", failures, reason);
+            probe = Flux.interval(probeInterval)
+                    .onBackpressureDrop()
+                    .concatMap(tick -> ping(), 1)
+                    .filter(Boolean::booleanValue)
+                    .next()
+                    .subscribe(up -> close());
+        }
+    }
+    
+    private void close() {
+        consecutiveFailures.set(0);
+        if (open.compareAndSet(true, false)) {
+            log.info("Redis circuit closed, cache calls resumed");
+            closeListeners.forEach(Runnable::run);
+        }
+    }
+}
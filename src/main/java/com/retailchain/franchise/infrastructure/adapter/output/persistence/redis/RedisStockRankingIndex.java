@@ -0,0 +1,343 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.redis;
+
+import com.retailchain.franchise.domain.model.Product;
+import com.retailchain.franchise.domain.model.RankedProduct;
+import com.retailchain.franchise.domain.port.output.StockRankingIndex;
+import com.retailchain.franchise.domain.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Stock rankings in Redis sorted sets, one per franchise and one per branch, scored by
+ * stock with the product id as member. A hash maps every product to its franchise and
+ * branch so stock-only writes, which do not carry them, can find the sets to update.
+ * Each write is one HSET/HMGET plus one ZADD per affected set, whatever the batch size.
+ * <p>
+ * The sets are derived data: writes go through the circuit breaker, failures are logged
+ * and repaired by a rebuild. A rebuild fills fresh keys and renames them over the live
+ * ones, drops the sets of branches left without products and the owner entries of
+ * products that no longer exist.
+ * <p>
+ * Writes that land while a rebuild runs would be overwritten by its older snapshot, so
+ * while the franchise's rebuild marker exists every write is also recorded in a journal
+ * hash, before it touches the sets. The rebuild replays the journal onto the fresh keys
+ * and, once they are renamed, onto the live ones. Only one rebuild per franchise runs at
+ * a time; the marker expires after REBUILD_MARKER_TTL in case a node dies mid-rebuild.
+ */
+@Slf4j
+@Component
+public class RedisStockRankingIndex implements StockRankingIndex {
+    
+    static final String KEY_PREFIX = "stock-ranking:";
+    static final String OWNERS_KEY = KEY_PREFIX + "owners";
+    static final String REBUILD_SUFFIX = ":rebuild";
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final Duration REBUILD_MARKER_TTL = Duration.ofMinutes(15);
+    // Journal value of a removed product, in place of its stock
+    private static final String REMOVED = "-";
+    // Takes the marker and drops a journal left behind by a rebuild that died
+    private static final RedisScript<Long> START_REBUILD = RedisScript.of(
+            "if redis.call('SET', KEYS[1], '1', 'NX', 'PX', ARGV[1]) then redis.call('DEL', KEYS[2]) return 1 end return 0",
+            Long.class);
+    private static final RedisScript<Long> JOURNAL_IF_REBUILDING = RedisScript.of(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return redis.call('HSET', KEYS[2], unpack(ARGV)) end return 0",
+            Long.class);
+    
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final boolean enabled;
+    
+    public RedisStockRankingIndex(@Qualifier("reactiveRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate,
+                                  RedisCircuitBreaker circuitBreaker,
+                                  @Value("${franchise.stock-ranking.enabled:false}") boolean enabled) {
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.enabled = enabled;
+    }
+    
+    static String franchiseKey(Long franchiseId) {
+        return KEY_PREFIX + "franchise:" + franchiseId;
+    }
+    
+    static String branchKey(Long branchId) {
+        return KEY_PREFIX + "branch:" + branchId;
+    }
+    
+    static String rebuildMarkerKey(Long franchiseId) {
+        return KEY_PREFIX + "rebuilding:" + franchiseId;
+    }
+    
+    static String journalKey(Long franchiseId) {
+        return KEY_PREFIX + "journal:" + franchiseId;
+    }
+    
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    @Override
+    public Mono<Void> put(Long franchiseId, Collection<Product> products) {
+        if (!enabled || products.isEmpty()) {
+            return Mono.empty();
+        }
+        Map<String, String> journaled = new HashMap<>();
+        products.forEach(product -> journaled.put(product.getId().toString(),
+                product.getBranchId() + ":" + stockOf(product)));
+        return write("index", products.size(), Mono.defer(() -> journal(franchiseId, journaled)
+                .then(writeProducts(franchiseId, products, ""))));
+    }
+    
+    @Override
+    public Mono<Void> updateStocks(Map<Long, Integer> stocks) {
+        if (!enabled || stocks.isEmpty()) {
+            return Mono.empty();
+        }
+        List<Long> productIds = new ArrayList<>(stocks.keySet());
+        Mono<Void> update = Mono.defer(() -> redisTemplate.<String, String>opsForHash()
+                .multiGet(OWNERS_KEY, productIds.stream().map(Object::toString).toList())
+                .flatMap(owners -> {
+                    Map<String, List<TypedTuple<String>>> entriesByKey = new HashMap<>();
+                    Map<Long, Map<String, String>> journaled = new HashMap<>();
+                    for (int i = 0; i < productIds.size(); i++) {
+                        Long[] owner = parseOwner(owners.get(i));
+                        // Never indexed: a rebuild picks the product up
+                        if (owner != null) {
+                            Long productId = productIds.get(i);
+                            TypedTuple<String> entry = TypedTuple.of(productId.toString(), (double) stocks.get(productId));
+                            entriesByKey.computeIfAbsent(franchiseKey(owner[0]), key -> new ArrayList<>()).add(entry);
+                            entriesByKey.computeIfAbsent(branchKey(owner[1]), key -> new ArrayList<>()).add(entry);
+                            journaled.computeIfAbsent(owner[0], franchiseId -> new HashMap<>())
+                                    .put(productId.toString(), owner[1] + ":" + stocks.get(productId));
+                        }
+                    }
+                    return Flux.fromIterable(journaled.entrySet())
+                            .concatMap(entry -> journal(entry.getKey(), entry.getValue()))
+                            .then(addAll(entriesByKey));
+                }));
+        return write("update stock of", stocks.size(), update);
+    }
+    
+    @Override
+    public Mono<Void> remove(Long productId) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        String member = productId.toString();
+        Mono<Void> remove = Mono.defer(() -> redisTemplate.<String, String>opsForHash().get(OWNERS_KEY, member)
+                .mapNotNull(RedisStockRankingIndex::parseOwner)
+                .flatMap(owner -> journal(owner[0], Map.of(member, owner[1] + ":" + REMOVED))
+                        .then(redisTemplate.opsForZSet().remove(franchiseKey(owner[0]), member))
+                        .then(redisTemplate.opsForZSet().remove(branchKey(owner[1]), member)))
+                .then(redisTemplate.opsForHash().remove(OWNERS_KEY, member))
+                .then());
+        return write("remove", 1, remove);
+    }
+    
+    @Override
+    public Flux<RankedProduct> findRanked(Long franchiseId, Long branchId, int k, boolean ascending) {
+        String key = branchId != null ? branchKey(branchId) : franchiseKey(franchiseId);
+        Range<Long> range = Range.closed(0L, k - 1L);
+        if (!ascending) {
+            return redisTemplate.opsForZSet().reverseRangeWithScores(key, range)
+                    .index()
+                    .map(ranked -> toRankedProduct(ranked.getT2(), ranked.getT1() + 1));
+        }
+        // Ranks always count from the most stock, so the bottom entries need the set size
+        return redisTemplate.opsForZSet().size(key)
+                .flatMapMany(size -> redisTemplate.opsForZSet().rangeWithScores(key, range)
+                        .index()
+                        .map(ranked -> toRankedProduct(ranked.getT2(), size - ranked.getT1())));
+    }
+    
+    @Override
+    public Mono<RankedProduct> findRank(Long franchiseId, Long productId) {
+        String key = franchiseKey(franchiseId);
+        String member = productId.toString();
+        return Mono.zip(redisTemplate.opsForZSet().reverseRank(key, member),
+                        redisTemplate.opsForZSet().score(key, member))
+                .map(rankAndScore -> RankedProduct.builder()
+                        .productId(productId)
+                        .stock(rankAndScore.getT2().intValue())
+                        .rank(rankAndScore.getT1() + 1)
+                        .build());
+    }
+    
+    // The marker is taken before products is subscribed, so every write the snapshot misses is journaled
+    @Override
+    public Mono<Long> rebuild(Long franchiseId, Collection<Long> branchIds, Flux<Product> products) {
+        Set<String> liveKeys = new LinkedHashSet<>();
+        liveKeys.add(franchiseKey(franchiseId));
+        branchIds.forEach(branchId -> liveKeys.add(branchKey(branchId)));
+        Set<String> indexed = new HashSet<>();
+        Mono<Long> rebuild = Mono.defer(() -> redisTemplate.delete(liveKeys.stream().map(key -> key + REBUILD_SUFFIX).toArray(String[]::new)))
+                .thenMany(products.buffer(REBUILD_BATCH_SIZE))
+                .concatMap(batch -> {
+                    batch.forEach(product -> indexed.add(product.getId().toString()));
+                    return writeProducts(franchiseId, batch, REBUILD_SUFFIX).thenReturn((long) batch.size());
+                })
+                .reduce(0L, Long::sum)
+                .flatMap(count -> replayJournal(franchiseId, REBUILD_SUFFIX, liveKeys)
+                        .then(Flux.fromIterable(liveKeys).concatMap(this::replace).then())
+                        // Writes that reached the old live keys before the rename
+                        .then(replayJournal(franchiseId, "", liveKeys))
+                        .flatMap(journaled -> {
+                            indexed.addAll(journaled);
+                            return removeStaleOwners(franchiseId, indexed);
+                        })
+                        .thenReturn(count))
+                .doOnNext(count -> log.info("Rebuilt stock ranking of franchise {} with {} products", franchiseId, count));
+        return redisTemplate.execute(START_REBUILD, List.of(rebuildMarkerKey(franchiseId), journalKey(franchiseId)),
+                        List.of(Long.toString(REBUILD_MARKER_TTL.toMillis())))
+                .next()
+                .flatMap(started -> started > 0
+                        ? Mono.usingWhen(Mono.just(franchiseId), id -> rebuild,
+                                this::endRebuild, (id, error) -> endRebuild(id), this::endRebuild)
+                        : Mono.error(new BusinessException("STOCK_RANKING_REBUILD_RUNNING",
+                                "A stock ranking rebuild is already running for franchise " + franchiseId)));
+    }
+    
+    private Mono<Void> endRebuild(Long franchiseId) {
+        return redisTemplate.delete(rebuildMarkerKey(franchiseId), journalKey(franchiseId)).then();
+    }
+    
+    // No-op unless a rebuild of the franchise is running; values are "branchId:stock" or "branchId:-"
+    private Mono<Void> journal(Long franchiseId, Map<String, String> entries) {
+        List<String> args = new ArrayList<>(entries.size() * 2);
+        entries.forEach((productId, value) -> {
+            args.add(productId);
+            args.add(value);
+        });
+        return redisTemplate.execute(JOURNAL_IF_REBUILDING,
+                        List.of(rebuildMarkerKey(franchiseId), journalKey(franchiseId)), args)
+                .then();
+    }
+    
+    // Applies the journal to the sets with the given suffix, skipping fresh keys of branches the
+    // rebuild does not swap in; returns the ids of the products the journal keeps
+    private Mono<Set<String>> replayJournal(Long franchiseId, String keySuffix, Set<String> liveKeys) {
+        return redisTemplate.<String, String>opsForHash().entries(journalKey(franchiseId))
+                .collectList()
+                .flatMap(journaled -> {
+                    Map<String, List<TypedTuple<String>>> added = new HashMap<>();
+                    Map<String, List<String>> removed = new HashMap<>();
+                    Set<String> kept = new HashSet<>();
+                    List<String> removedIds = new ArrayList<>();
+                    for (Map.Entry<String, String> entry : journaled) {
+                        String member = entry.getKey();
+                        String[] value = entry.getValue().split(":");
+                        boolean isRemoved = REMOVED.equals(value[1]);
+                        for (String key : List.of(franchiseKey(franchiseId), branchKey(Long.valueOf(value[0])))) {
+                            if (!keySuffix.isEmpty() && !liveKeys.contains(key)) {
+                                continue;
+                            }
+                            if (isRemoved) {
+                                removed.computeIfAbsent(key + keySuffix, k -> new ArrayList<>()).add(member);
+                            } else {
+                                added.computeIfAbsent(key + keySuffix, k -> new ArrayList<>())
+                                        .add(TypedTuple.of(member, Double.valueOf(value[1])));
+                            }
+                        }
+                        if (isRemoved) {
+                            removedIds.add(member);
+                        } else {
+                            kept.add(member);
+                        }
+                    }
+                    Mono<Void> removeOwners = removedIds.isEmpty()
+                            ? Mono.empty()
+                            : redisTemplate.opsForHash().remove(OWNERS_KEY, removedIds.toArray()).then();
+                    return addAll(added)
+                            .then(Flux.fromIterable(removed.entrySet())
+                                    .flatMap(entry -> redisTemplate.opsForZSet().remove(entry.getKey(), entry.getValue().toArray()))
+                                    .then())
+                            .then(removeOwners)
+                            .thenReturn(kept);
+                });
+    }
+    
+    private Mono<Void> writeProducts(Long franchiseId, Collection<Product> products, String keySuffix) {
+        Map<String, String> owners = new HashMap<>();
+        Map<String, List<TypedTuple<String>>> entriesByKey = new HashMap<>();
+        for (Product product : products) {
+            String member = product.getId().toString();
+            TypedTuple<String> entry = TypedTuple.of(member, (double) stockOf(product));
+            owners.put(member, franchiseId + ":" + product.getBranchId());
+            entriesByKey.computeIfAbsent(franchiseKey(franchiseId) + keySuffix, key -> new ArrayList<>()).add(entry);
+            entriesByKey.computeIfAbsent(branchKey(product.getBranchId()) + keySuffix, key -> new ArrayList<>()).add(entry);
+        }
+        return redisTemplate.<String, String>opsForHash().putAll(OWNERS_KEY, owners)
+                .then(addAll(entriesByKey));
+    }
+    
+    private Mono<Void> addAll(Map<String, List<TypedTuple<String>>> entriesByKey) {
+        return Flux.fromIterable(entriesByKey.entrySet())
+                .flatMap(entry -> redisTemplate.opsForZSet().addAll(entry.getKey(), entry.getValue()))
+                .then();
+    }
+    
+    // A set left without products by the rebuild has no fresh key and is dropped
+    private Mono<Void> replace(String key) {
+        return redisTemplate.hasKey(key + REBUILD_SUFFIX)
+                .flatMap(rebuilt -> rebuilt
+                        ? redisTemplate.rename(key + REBUILD_SUFFIX, key).then()
+                        : redisTemplate.delete(key).then());
+    }
+    
+    // The hash is shared by all franchises, so it is scanned for this franchise's entries
+    private Mono<Void> removeStaleOwners(Long franchiseId, Set<String> indexed) {
+        String ownerPrefix = franchiseId + ":";
+        return redisTemplate.<String, String>opsForHash()
+                .scan(OWNERS_KEY, ScanOptions.scanOptions().count(REBUILD_BATCH_SIZE).build())
+                .filter(entry -> entry.getValue().startsWith(ownerPrefix) && !indexed.contains(entry.getKey()))
+                .map(Map.Entry::getKey)
+                .buffer(REBUILD_BATCH_SIZE)
+                .concatMap(stale -> redisTemplate.opsForHash().remove(OWNERS_KEY, stale.toArray()))
+                .then();
+    }
+    
+    private Mono<Void> write(String action, int products, Mono<Void> call) {
+        Mono<Void> logged = call.doOnError(e -> log.warn("Failed to {} {} products in stock ranking, a rebuild will repair it: {}",
+                action, products, e.getMessage()));
+        return circuitBreaker.execute("STOCK_RANKING", logged, Mono.empty());
+    }
+    
+    private static int stockOf(Product product) {
+        return product.getStock() != null ? product.getStock() : 0;
+    }
+    
+    // [franchiseId, branchId] of a product, null when it was never indexed
+    private static Long[] parseOwner(String value) {
+        if (value == null) {
+            return null;
+        }
+        String[] parts = value.split(":");
+        return new Long[] {Long.valueOf(parts[0]), Long.valueOf(parts[1])};
+    }
+    
+    private static RankedProduct toRankedProduct(TypedTuple<String> entry, long rank) {
+        return RankedProduct.builder()
+                .productId(Long.valueOf(entry.getValue()))
+                .stock(entry.getScore() != null ? entry.getScore().intValue() : 0)
+                .rank(rank)
+                .build();
+    }
+}
@@ -0,0 +1,211 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.redis;
+
+import com.retailchain.franchise.domain.port.output.CacheRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Local L1 in front of Redis. Every set/delete is broadcast on a pub/sub channel so the
+ * other nodes drop their L1 copy; L1 entries also expire after max-staleness in case a
+ * message is lost. Broadcasts go through the circuit breaker, and L1 is cleared when the
+ * breaker closes since messages from other nodes were lost while Redis was unreachable.
+ * A batch write or delete sends one message carrying all of its keys.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "franchise.cache.l1.enabled", havingValue = "true")
+public class TwoTierCacheAdapter implements CacheRepository {
+    
+    static final String INVALIDATION_CHANNEL = "franchise:cache:invalidations";
+    private static final char SEPARATOR = '|';
+    // Cache keys never contain a line break
+    private static final String KEY_SEPARATOR = "\n";
+    
+    private final RedisCacheAdapter redisCache;
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final LocalCache localCache;
+    private final Duration maxStaleness;
+    private final String nodeId = UUID.randomUUID().toString();
+    private Disposable subscription;
+    
+    public TwoTierCacheAdapter(RedisCacheAdapter redisCache,
+                               @Qualifier("reactiveRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate,
+                               RedisCircuitBreaker circuitBreaker,
+                               @Value("${franchise.cache.l1.max-size:10000}") int maxSize,
+                               @Value("${franchise.cache.l1.max-staleness:30s}") Duration maxStaleness) {
+        this.redisCache = redisCache;
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.localCache = new LocalCache(maxSize);
+        this.maxStaleness = maxStaleness;
+        circuitBreaker.onClose(localCache::clear);
+    }
+    
+    @PostConstruct
+    void subscribe() {
+        subscription = redisTemplate.listenToChannel(INVALIDATION_CHANNEL)
+                .map(ReactiveSubscription.Message::getMessage)
+                .doOnNext(this::onInvalidation)
+                .doOnError(e -> {
+                    // Messages may have been missed while disconnected
+                    log.warn("Cache invalidation channel failed, clearing L1: {}", e.getMessage());
+                    localCache.clear();
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30)))
+                .subscribe();
+    }
+    
+    @PreDestroy
+    void unsubscribe() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+    
+    @Override
+    public <T> Mono<T> get(String key, Class<T> type) {
+        Object local = localCache.get(key);
+        if (type.isInstance(local)) {
+            log.debug("L1 cache hit for key: {}", key);
+            return Mono.just(type.cast(local));
+        }
+        return redisCache.get(key, type)
+                .doOnNext(value -> localCache.put(key, value, maxStaleness));
+    }
+    
+    @Override
+    public <T> Mono<Void> set(String key, T value, Duration ttl) {
+        return redisCache.set(key, value, ttl)
+                .doOnSuccess(v -> localCache.put(key, value, min(ttl, maxStaleness)))
+                .then(publishInvalidation(List.of(key)));
+    }
+    
+    // Used for coordination between nodes, so it is never answered from L1
+    @Override
+    public <T> Mono<Boolean> setIfAbsent(String key, T value, Duration ttl) {
+        return redisCache.setIfAbsent(key, value, ttl);
+    }
+    
+    @Override
+    public Mono<Void> delete(String key) {
+        // Removed again afterwards in case a concurrent read refilled L1 from Redis
+        return Mono.fromRunnable(() -> localCache.remove(key))
+                .then(redisCache.delete(key))
+                .doOnSuccess(v -> localCache.remove(key))
+                .then(publishInvalidation(List.of(key)));
+    }
+    
+    // Guards coordination keys, which are never held in L1
+    @Override
+    public <T> Mono<Boolean> deleteIfEquals(String key, T expected) {
+        return redisCache.deleteIfEquals(key, expected);
+    }
+    
+    @Override
+    public <T> Mono<Boolean> expireIfEquals(String key, T expected, Duration ttl) {
+        return redisCache.expireIfEquals(key, expected, ttl);
+    }
+    
+    @Override
+    public <T> Mono<Map<String, T>> getAll(Collection<String> keys, Class<T> type) {
+        Map<String, T> result = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String key : keys) {
+            Object local = localCache.get(key);
+            if (type.isInstance(local)) {
+                result.put(key, type.cast(local));
+            } else {
+                misses.add(key);
+            }
+        }
+        if (misses.isEmpty()) {
+            return Mono.just(result);
+        }
+        return redisCache.getAll(misses, type)
+                .map(found -> {
+                    found.forEach((key, value) -> localCache.put(key, value, maxStaleness));
+                    result.putAll(found);
+                    return result;
+                });
+    }
+    
+    @Override
+    public <T> Mono<Void> setAll(Map<String, T> values, Duration ttl) {
+        Duration localTtl = min(ttl, maxStaleness);
+        return redisCache.setAll(values, ttl)
+                .doOnSuccess(v -> values.forEach((key, value) -> localCache.put(key, value, localTtl)))
+                .then(publishInvalidation(values.keySet()));
+    }
+    
+    @Override
+    public Mono<Void> deleteAll(Collection<String> keys) {
+        return Mono.fromRunnable(() -> keys.forEach(localCache::remove))
+                .then(redisCache.deleteAll(keys))
+                .doOnSuccess(v -> keys.forEach(localCache::remove))
+                .then(publishInvalidation(keys));
+    }
+    
+    @Override
+    public Mono<Long> increment(String key, long delta) {
+        if (delta == 0) {
+            Object local = localCache.get(key);
+            if (local instanceof Long value) {
+                return Mono.just(value);
+            }
+            return redisCache.increment(key, 0)
+                    .doOnNext(value -> localCache.put(key, value, maxStaleness));
+        }
+        return Mono.fromRunnable(() -> localCache.remove(key))
+                .then(redisCache.increment(key, delta))
+                .doOnNext(value -> localCache.put(key, value, maxStaleness))
+                .flatMap(value -> publishInvalidation(List.of(key)).thenReturn(value));
+    }
+    
+    private Mono<Void> publishInvalidation(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Mono.empty();
+        }
+        String message = nodeId + SEPARATOR + String.join(KEY_SEPARATOR, keys);
+        Mono<Void> publish = Mono.defer(() -> redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message))
+                .doOnError(e -> log.warn("Failed to publish cache invalidation for {} keys: {}", keys.size(), e.getMessage()))
+                .then();
+        return circuitBreaker.execute("PUBLISH", publish, Mono.empty());
+    }
+    
+    private void onInvalidation(String message) {
+        int separator = message.indexOf(SEPARATOR);
+        if (separator < 0 || message.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        String[] keys = message.substring(separator + 1).split(KEY_SEPARATOR);
+        for (String key : keys) {
+            localCache.remove(key);
+        }
+        log.debug("{} L1 entries invalidated by another node", keys.length);
+    }
+    
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
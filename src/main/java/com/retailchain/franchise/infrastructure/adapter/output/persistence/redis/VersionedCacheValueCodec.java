@@ -0,0 +1,110 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Prefixes every value with a two byte header (format, flags) so the write format can
+ * be switched with franchise.cache.codec.format while values written in the other format,
+ * or as plain JSON before the header existed, are still readable. Payloads larger than
+ * compress-threshold bytes are deflated.
+ */
+@Component
+public class VersionedCacheValueCodec implements CacheValueCodec {
+    
+    static final byte FORMAT_JSON = 1;
+    static final byte FORMAT_SMILE = 2;
+    static final byte FLAG_DEFLATED = 1;
+    private static final int HEADER_SIZE = 2;
+    
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+    private final byte writeFormat;
+    private final int compressThreshold;
+    
+    public VersionedCacheValueCodec(ObjectMapper objectMapper,
+                                    @Value("${franchise.cache.codec.format:smile}") String format,
+                                    @Value("${franchise.cache.codec.compress-threshold:1024}") int compressThreshold) {
+        this.jsonMapper = objectMapper;
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
+        this.writeFormat = "json".equalsIgnoreCase(format) ? FORMAT_JSON : FORMAT_SMILE;
+        this.compressThreshold = compressThreshold;
+    }
+    
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        byte[] payload = mapperFor(writeFormat).writeValueAsBytes(value);
+        byte flags = 0;
+        if (compressThreshold > 0 && payload.length > compressThreshold) {
+            payload = deflate(payload);
+            flags |= FLAG_DEFLATED;
+        }
+        byte[] encoded = new byte[HEADER_SIZE + payload.length];
+        encoded[0] = writeFormat;
+        encoded[1] = flags;
+        System.arraycopy(payload, 0, encoded, HEADER_SIZE, payload.length);
+        return encoded;
+    }
+    
+    @Override
+    public <T> T decode(byte[] bytes, Class<T> type) throws IOException {
+        if (bytes.length < HEADER_SIZE || (bytes[0] != FORMAT_JSON && bytes[0] != FORMAT_SMILE)) {
+            // Written as plain JSON text before values carried a header
+            return jsonMapper.readValue(bytes, type);
+        }
+        byte[] payload = new byte[bytes.length - HEADER_SIZE];
+        System.arraycopy(bytes, HEADER_SIZE, payload, 0, payload.length);
+        if ((bytes[1] & FLAG_DEFLATED) != 0) {
+            payload = inflate(payload);
+        }
+        return mapperFor(bytes[0]).readValue(payload, type);
+    }
+    
+    private ObjectMapper mapperFor(byte format) {
+        return format == FORMAT_JSON ? jsonMapper : smileMapper;
+    }
+    
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+            byte[] chunk = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+    
+    private static byte[] inflate(byte[] data) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+            byte[] chunk = new byte[4096];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(chunk);
+                if (read == 0 && inflater.needsInput()) {
+                    throw new IOException("Truncated compressed cache value");
+                }
+                out.write(chunk, 0, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt compressed cache value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.retailchain.franchise.infrastructure.config;
 
 import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
 import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
 import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.binding.BindMarkersFactoryResolver;
 
 @Configuration
 @EnableR2dbcRepositories(basePackages = "com.retailchain.franchise.infrastructure.adapter.output.persistence.mysql.repository")
@@ -23,4 +26,21 @@ public class DatabaseConfig {
         
         return initializer;
     }
+    
+    // Rows fetched per round trip when a query is streamed (0 keeps the driver default)
+    @Bean
+    DatabaseClient databaseClient(ConnectionFactory connectionFactory,
+                                  @Value("${franchise.streaming.fetch-size:0}") int fetchSize) {
+        return DatabaseClient.builder()
+                .connectionFactory(connectionFactory)
+                .bindMarkers(BindMarkersFactoryResolver.resolve(connectionFactory))
+                .namedParameters(true)
+                .executeFunction(statement -> {
+                    if (fetchSize > 0) {
+                        statement.fetchSize(fetchSize);
+                    }
+                    return statement.execute();
+                })
+                .build();
+    }
 }
\ No newline at end of file
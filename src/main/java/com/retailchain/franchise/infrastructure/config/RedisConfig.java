@@ -7,6 +7,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
@@ -30,6 +31,25 @@ public class RedisConfig {
         return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
     }
     
+    // Cache values are encoded by CacheValueCodec, so they are stored as raw bytes
+    @Bean
+    ReactiveRedisTemplate<String, byte[]> reactiveRedisBytesTemplate(
+            ReactiveRedisConnectionFactory connectionFactory) {
+        
+        StringRedisSerializer keySerializer = new StringRedisSerializer();
+        RedisSerializer<byte[]> valueSerializer = RedisSerializer.byteArray();
+        
+        RedisSerializationContext<String, byte[]> serializationContext = 
+                RedisSerializationContext.<String, byte[]>newSerializationContext()
+                        .key(keySerializer)
+                        .value(valueSerializer)
+                        .hashKey(keySerializer)
+                        .hashValue(valueSerializer)
+                        .build();
+        
+        return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
+    }
+    
     @Bean
     ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -1,35 +1,44 @@
 package com.retailchain.franchise.infrastructure.config;
 
+import com.retailchain.franchise.infrastructure.adapter.output.persistence.redis.RedisCircuitBreaker;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
-import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
-import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import reactor.core.publisher.Mono;
+import java.time.Duration;
 
 @Slf4j
 @Configuration
 @Profile("railway")
 public class RedisHealthConfig {
     
+    // The PING result is shared by all health requests for cache-ttl; an open circuit answers without Redis
     @Bean
-    HealthIndicator redisHealthIndicator(ReactiveRedisConnectionFactory connectionFactory) {
-        return () -> {
-            try {
-                connectionFactory.getReactiveConnection()
-                    .ping()
-                    .block(java.time.Duration.ofSeconds(1));
-                return Health.up()
-                    .withDetail("redis", "Available")
-                    .build();
-            } catch (Exception e) {
-                log.debug("Redis not available in Railway free tier - this is expected");
-                return Health.up()
-                    .withDetail("redis", "Not available (Railway free tier)")
-                    .withDetail("impact", "Cache disabled, all features working")
-                    .build();
-            }
-        };
+    ReactiveHealthIndicator redisHealthIndicator(RedisCircuitBreaker circuitBreaker,
+                                                 @Value("${franchise.cache.health.cache-ttl:10s}") Duration cacheTtl) {
+        Mono<Health> check = Mono.defer(() -> circuitBreaker.isOpen()
+                        ? Mono.just(false)
+                        : circuitBreaker.ping())
+                .map(available -> available ? available() : unavailable())
+                .cache(cacheTtl);
+        return () -> check;
     }
-}
\ No newline at end of file
+    
+    private static Health available() {
+        return Health.up()
+            .withDetail("redis", "Available")
+            .build();
+    }
+    
+    private static Health unavailable() {
+        log.debug("Redis not available in Railway free tier - this is expected");
+        return Health.up()
+            .withDetail("redis", "Not available (Railway free tier)")
+            .withDetail("impact", "Cache disabled, all features working")
+            .build();
+    }
+}
@@ -89,6 +89,7 @@ public class SchemaInitializer {
                 updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
                 FOREIGN KEY (branch_id) REFERENCES branches(id) ON DELETE CASCADE,
                 INDEX idx_product_branch (branch_id),
+                INDEX idx_product_branch_stock (branch_id, stock),
                 INDEX idx_product_stock (stock),
                 INDEX idx_product_name (name)
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
@@ -0,0 +1,322 @@
+package com.retailchain.franchise.application.cache;
+
+import com.retailchain.franchise.domain.model.Franchise;
+import com.retailchain.franchise.domain.port.output.CacheAccessTracker;
+import com.retailchain.franchise.domain.port.output.CacheRepository;
+import com.retailchain.franchise.domain.port.output.WriteRateTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CacheLoaderTest {
+    
+    private static final CachePolicy POLICY = 
+            new CachePolicy(Duration.ofMinutes(10), Duration.ofHours(1), Duration.ofSeconds(2), Duration.ofSeconds(30));
+    
+    @Mock
+    private CacheRepository cacheRepository;
+    
+    @Mock
+    private CacheAccessTracker accessTracker;
+    
+    @Mock
+    private WriteRateTracker writeRateTracker;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private CacheLoader cacheLoader;
+    
+    private Franchise cached;
+    private Franchise fresh;
+    private AtomicInteger loads;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(writeRateTracker.ttlFor(anyString(), any(Duration.class)))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+        cacheLoader = new CacheLoader(cacheRepository, meterRegistry, accessTracker, writeRateTracker);
+        cached = Franchise.builder().id(1L).name("Cached").build();
+        fresh = Franchise.builder().id(1L).name("Fresh").build();
+        loads = new AtomicInteger();
+    }
+    
+    @Test
+    void get_FreshValueSkipsLoader() {
+        // Given
+        givenCached(cached, System.currentTimeMillis() + 60_000);
+        
+        // When & Then
+        StepVerifier.create(cacheLoader.get("franchise:1", Franchise.class, POLICY, () -> load(Mono.just(fresh))))
+                .expectNext(cached)
+                .verifyComplete();
+        
+        assertThat(loads).hasValue(0);
+    }
+    
+    @Test
+    void get_SoftExpiredServesStaleAndRefreshes() {
+        // Given
+        givenCached(cached, System.currentTimeMillis() - 1);
+        givenLease(true);
+        when(cacheRepository.setAll(anyMap(), eq(POLICY.hardTtl()))).thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(cacheLoader.get("franchise:1", Franchise.class, POLICY, () -> load(Mono.just(fresh))))
+                .expectNext(cached)
+                .verifyComplete();
+        
+        assertThat(loads).hasValue(1);
+        verify(cacheRepository).setAll(argThat(entries -> fresh.equals(entries.get("franchise:1"))
+                && entries.get("franchise:1:meta") instanceof CacheMeta), eq(POLICY.hardTtl()));
+    }
+    
+    @Test
+    void get_SoftExpiredKeepsServingWhenRefreshFails() {
+        // Given
+        givenCached(cached, System.currentTimeMillis() - 1);
+        givenLease(true);
+        
+        // When & Then
+        StepVerifier.create(cacheLoader.get("franchise:1", Franchise.class, POLICY,
+                        () -> load(Mono.error(new RuntimeException("Too many connections")))))
+                .expectNext(cached)
+                .verifyComplete();
+        
+        verify(cacheRepository, never()).setAll(anyMap(), any());
+    }
+    
+    @Test
+    void get_MissLoadsAndStoresWithMeta() {
+        // Given
+        when(cacheRepository.get("franchise:1", Franchise.class)).thenReturn(Mono.empty());
+        when(cacheRepository.get("franchise:1:meta", CacheMeta.class)).thenReturn(Mono.empty());
+        when(accessTracker.shouldAdmit("franchise:1")).thenReturn(true);
+        givenLease(true);
+        when(cacheRepository.setAll(anyMap(), eq(POLICY.hardTtl()))).thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(cacheLoader.get("franchise:1", Franchise.class, POLICY, () -> load(Mono.just(fresh))))
+                .expectNext(fresh)
+                .verifyComplete();
+        
+        verify(cacheRepository).setAll(argThat(entries -> entries.size() == 2), eq(POLICY.hardTtl()));
+        verify(cacheRepository).deleteIfEquals(eq("franchise:1:lease"), anyString());
+    }
+    
+    @Test
+    void get_MissReleasesLeaseOnlyWithItsOwnToken() {
+        // Given
+        when(cacheRepository.get("franchise:1", Franchise.class)).thenReturn(Mono.empty());
+        when(cacheRepository.get("franchise:1:meta", CacheMeta.class)).thenReturn(Mono.empty());
+        when(accessTracker.shouldAdmit("franchise:1")).thenReturn(true);
+        givenLease(true);
+        when(cacheRepository.setAll(anyMap(), eq(POLICY.hardTtl()))).thenReturn(Mono.empty());
+        
+        // When
+        StepVerifier.create(cacheLoader.get("franchise:1", Franchise.class, POLICY, () -> load(Mono.just(fresh))))
+                .expectNext(fresh)
+                .verifyComplete();
+        
+        // Then
+        ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+        verify(cacheRepository).setIfAbsent(eq("franchise:1:lease"), token.capture(), any(Duration.class));
+        verify(cacheRepository).deleteIfEquals("franchise:1:lease", token.getValue());
+        verify(cacheRepository, never()).delete("franchise:1:lease");
+    }
+    
+    @Test
+    void get_MissWaitsForLeaseHolder() {
+        // Given
+        when(cacheRepository.get("franchise:1", Franchise.class)).thenReturn(Mono.empty(), Mono.just(fresh));
+        when(cacheRepository.get("franchise:1:meta", CacheMeta.class)).thenReturn(Mono.empty());
+        when(accessTracker.shouldAdmit("franchise:1")).thenReturn(true);
+        givenLease(false);
+        
+        // When & Then
+        StepVerifier.create(cacheLoader.get("franchise:1", Franchise.class, POLICY, () -> load(Mono.just(fresh))))
+                .expectNext(fresh)
+                .verifyComplete();
+        
+        assertThat(loads).hasValue(0);
+        verify(cacheRepository, never()).setAll(anyMap(), any());
+    }
+    
+    @Test
+    void get_SoftExpiredSkipsRefreshWhenLeaseIsHeldElsewhere() {
+        // Given
+        givenCached(cached, System.currentTimeMillis() - 1);
+        givenLease(false);
+        
+        // When & Then
+        StepVerifier.create(cacheLoader.get("franchise:1", Franchise.class, POLICY, () -> load(Mono.just(fresh))))
+                .expectNext(cached)
+                .verifyComplete();
+        
+        assertThat(loads).hasValue(0);
+    }
+    
+    @Test
+    void get_MissNotAdmittedIsNotStored() {
+        // Given
+        when(cacheRepository.get("franchise:1", Franchise.class)).thenReturn(Mono.empty());
+        when(cacheRepository.get("franchise:1:meta", CacheMeta.class)).thenReturn(Mono.empty());
+        when(accessTracker.shouldAdmit("franchise:1")).thenReturn(false);
+        
+        // When & Then
+        StepVerifier.create(cacheLoader.get("franchise:1", Franchise.class, POLICY, () -> load(Mono.just(fresh))))
+                .expectNext(fresh)
+                .verifyComplete();
+        
+        verify(accessTracker).record("franchise:1");
+        verify(cacheRepository, never()).setAll(anyMap(), any());
+        assertThat(meterRegistry.get("franchise.cache.admissions").tag("result", "rejected").counter().count())
+                .isEqualTo(1.0);
+    }
+    
+    @Test
+    void get_MissPropagatesLoaderError() {
+        // Given
+        when(cacheRepository.get("franchise:1", Franchise.class)).thenReturn(Mono.empty());
+        when(cacheRepository.get("franchise:1:meta", CacheMeta.class)).thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(cacheLoader.get("franchise:1", Franchise.class, POLICY,
+                        () -> load(Mono.error(new RuntimeException("Too many connections")))))
+                .expectError(RuntimeException.class)
+                .verify();
+    }
+    
+    @Test
+    void get_MissWaitsForSlowLoaderPastLoadTimeout() {
+        // Given
+        when(cacheRepository.get("franchise:1", Franchise.class)).thenReturn(Mono.empty());
+        when(cacheRepository.get("franchise:1:meta", CacheMeta.class)).thenReturn(Mono.empty());
+        
+        // When & Then: there is no stale value to fall back on, so a slow answer beats an error
+        StepVerifier.withVirtualTime(() -> cacheLoader.get("franchise:1", Franchise.class, POLICY,
+                        () -> load(Mono.delay(POLICY.loadTimeout().multipliedBy(2)).thenReturn(fresh))))
+                .expectSubscription()
+                .thenAwait(POLICY.loadTimeout().multipliedBy(2))
+                .expectNext(fresh)
+                .verifyComplete();
+    }
+    
+    @Test
+    void get_SlowMissRenewsItsLeaseUntilLoaded() {
+        // Given
+        when(cacheRepository.get("franchise:1", Franchise.class)).thenReturn(Mono.empty());
+        when(cacheRepository.get("franchise:1:meta", CacheMeta.class)).thenReturn(Mono.empty());
+        when(accessTracker.shouldAdmit("franchise:1")).thenReturn(true);
+        givenLease(true);
+        when(cacheRepository.expireIfEquals(eq("franchise:1:lease"), anyString(), eq(POLICY.loadTimeout().multipliedBy(2))))
+                .thenReturn(Mono.just(true));
+        when(cacheRepository.setAll(anyMap(), eq(POLICY.hardTtl()))).thenReturn(Mono.empty());
+        
+        // When & Then: the load takes longer than the lease it started with
+        StepVerifier.withVirtualTime(() -> cacheLoader.get("franchise:1", Franchise.class, POLICY,
+                        () -> load(Mono.delay(POLICY.loadTimeout().multipliedBy(5)).thenReturn(fresh))))
+                .expectSubscription()
+                .thenAwait(POLICY.loadTimeout().multipliedBy(5))
+                .expectNext(fresh)
+                .verifyComplete();
+        
+        verify(cacheRepository, atLeast(4)).expireIfEquals(eq("franchise:1:lease"), anyString(), any(Duration.class));
+        verify(cacheRepository).deleteIfEquals(eq("franchise:1:lease"), anyString());
+    }
+    
+    @Test
+    void get_SoftExpiredRefreshTimesOutAndKeepsStaleValue() {
+        // Given
+        givenCached(cached, System.currentTimeMillis() - 1);
+        givenLease(true);
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.getOrSet();
+        
+        try {
+            // When
+            Franchise served = cacheLoader.get("franchise:1", Franchise.class, POLICY,
+                    () -> load(Mono.delay(POLICY.loadTimeout().multipliedBy(2)).thenReturn(fresh))).block();
+            scheduler.advanceTimeBy(POLICY.loadTimeout());
+            
+            // Then
+            assertThat(served).isEqualTo(cached);
+            verify(cacheRepository).deleteIfEquals(eq("franchise:1:lease"), anyString());
+            verify(cacheRepository, never()).setAll(anyMap(), any());
+        } finally {
+            VirtualTimeScheduler.reset();
+        }
+    }
+    
+    @Test
+    void get_NotFoundStoresNegativeMeta() {
+        // Given
+        when(cacheRepository.get("franchise:1", Franchise.class)).thenReturn(Mono.empty());
+        when(cacheRepository.get("franchise:1:meta", CacheMeta.class)).thenReturn(Mono.empty());
+        when(cacheRepository.set(eq("franchise:1:meta"), any(CacheMeta.class), eq(POLICY.negativeTtl())))
+                .thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(cacheLoader.get("franchise:1", Franchise.class, POLICY, () -> load(Mono.empty())))
+                .verifyComplete();
+        
+        verify(cacheRepository).set(eq("franchise:1:meta"), argThat((CacheMeta meta) -> meta.isNegative()),
+                eq(POLICY.negativeTtl()));
+    }
+    
+    @Test
+    void get_NegativeEntrySkipsLoader() {
+        // Given
+        when(cacheRepository.get("franchise:1", Franchise.class)).thenReturn(Mono.empty());
+        when(cacheRepository.get("franchise:1:meta", CacheMeta.class))
+                .thenReturn(Mono.just(new CacheMeta(0, true)));
+        
+        // When & Then
+        StepVerifier.create(cacheLoader.get("franchise:1", Franchise.class, POLICY, () -> load(Mono.just(fresh))))
+                .verifyComplete();
+        
+        assertThat(loads).hasValue(0);
+        assertThat(meterRegistry.get("franchise.cache.negative.hits").tag("cache", "franchise").counter().count())
+                .isEqualTo(1.0);
+    }
+    
+    private void givenLease(boolean acquired) {
+        when(cacheRepository.setIfAbsent(eq("franchise:1:lease"), any(), any(Duration.class)))
+                .thenReturn(Mono.just(acquired));
+        if (acquired) {
+            when(cacheRepository.deleteIfEquals(eq("franchise:1:lease"), anyString())).thenReturn(Mono.just(true));
+        }
+    }
+    
+    private void givenCached(Franchise value, long softExpiresAt) {
+        when(cacheRepository.get("franchise:1", Franchise.class)).thenReturn(Mono.just(value));
+        when(cacheRepository.get("franchise:1:meta", CacheMeta.class))
+                .thenReturn(Mono.just(new CacheMeta(softExpiresAt, false)));
+    }
+    
+    private Mono<Franchise> load(Mono<Franchise> result) {
+        loads.incrementAndGet();
+        return result;
+    }
+}
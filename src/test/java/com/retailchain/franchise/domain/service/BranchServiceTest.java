@@ -2,10 +2,13 @@ package com.retailchain.franchise.domain.service;
 
 import com.retailchain.franchise.application.service.BranchService;
 import com.retailchain.franchise.domain.exception.ResourceNotFoundException;
+import com.retailchain.franchise.domain.exception.ValidationException;
 import com.retailchain.franchise.domain.model.Branch;
 import com.retailchain.franchise.domain.model.Franchise;
 import com.retailchain.franchise.domain.port.output.BranchRepository;
+import com.retailchain.franchise.domain.port.output.CacheTagInvalidator;
 import com.retailchain.franchise.domain.port.output.FranchiseRepository;
+import com.retailchain.franchise.domain.port.output.WriteRateTracker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,6 +20,7 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -30,6 +34,12 @@ class BranchServiceTest {
     @Mock
     private FranchiseRepository franchiseRepository;
     
+    @Mock
+    private WriteRateTracker writeRateTracker;
+    
+    @Mock
+    private CacheTagInvalidator cacheTagInvalidator;
+    
     @InjectMocks
     private BranchService branchService;
     
@@ -121,6 +131,25 @@ class BranchServiceTest {
         
         verify(branchRepository).findById(1L);
         verify(branchRepository).update(any(Branch.class));
+        verify(writeRateTracker).recordWrite("branch:1");
+    }
+    
+    @Test
+    void updateBranchName_InvalidatesCachedResponses() {
+        // Given
+        Branch updatedBranch = Branch.builder().id(1L).name("Updated Branch").franchiseId(1L).build();
+        
+        when(branchRepository.findById(1L)).thenReturn(Mono.just(testBranch));
+        when(branchRepository.update(any(Branch.class))).thenReturn(Mono.just(updatedBranch));
+        when(cacheTagInvalidator.isEnabled()).thenReturn(true);
+        when(cacheTagInvalidator.invalidate(List.of("franchise:1", "branch:1"))).thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(branchService.updateBranchName(1L, "Updated Branch"))
+                .expectNext(updatedBranch)
+                .verifyComplete();
+        
+        verify(cacheTagInvalidator).invalidate(List.of("franchise:1", "branch:1"));
     }
     
     @Test
@@ -148,28 +177,50 @@ class BranchServiceTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
         
-        when(branchRepository.findByFranchiseId(1L))
+        when(branchRepository.findByFranchiseId(1L, null, 100))
                 .thenReturn(Flux.just(testBranch, branch2));
         
         // When & Then
-        StepVerifier.create(branchService.getBranchesByFranchiseId(1L))
+        StepVerifier.create(branchService.getBranchesByFranchiseId(1L, null, 100))
                 .expectNext(testBranch)
                 .expectNext(branch2)
                 .verifyComplete();
         
-        verify(branchRepository).findByFranchiseId(1L);
+        verify(branchRepository).findByFranchiseId(1L, null, 100);
     }
     
     @Test
     void getBranchesByFranchiseId_EmptyList() {
         // Given
-        when(branchRepository.findByFranchiseId(999L))
+        when(branchRepository.findByFranchiseId(999L, null, 100))
                 .thenReturn(Flux.empty());
         
         // When & Then
-        StepVerifier.create(branchService.getBranchesByFranchiseId(999L))
+        StepVerifier.create(branchService.getBranchesByFranchiseId(999L, null, 100))
                 .verifyComplete();
         
-        verify(branchRepository).findByFranchiseId(999L);
+        verify(branchRepository).findByFranchiseId(999L, null, 100);
+    }
+    
+    @Test
+    void getBranchesByFranchiseId_NextPage() {
+        // Given
+        when(branchRepository.findByFranchiseId(1L, 1L, 1))
+                .thenReturn(Flux.just(testBranch));
+        
+        // When & Then
+        StepVerifier.create(branchService.getBranchesByFranchiseId(1L, 1L, 1))
+                .expectNext(testBranch)
+                .verifyComplete();
+    }
+    
+    @Test
+    void getBranchesByFranchiseId_LimitTooLarge() {
+        // When & Then
+        StepVerifier.create(branchService.getBranchesByFranchiseId(1L, null, 5000))
+                .expectError(ValidationException.class)
+                .verify();
+        
+        verify(branchRepository, never()).findByFranchiseId(anyLong(), any(), anyInt());
     }
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package com.retailchain.franchise.domain.service;
 
+import com.retailchain.franchise.application.cache.CacheLoader;
+import com.retailchain.franchise.application.cache.CacheNamespaces;
+import com.retailchain.franchise.application.cache.CachePolicy;
 import com.retailchain.franchise.application.service.FranchiseService;
 import com.retailchain.franchise.domain.exception.ResourceNotFoundException;
 import com.retailchain.franchise.domain.model.Franchise;
-import com.retailchain.franchise.domain.port.output.CacheRepository;
+import com.retailchain.franchise.domain.port.output.CacheTagInvalidator;
 import com.retailchain.franchise.domain.port.output.FranchiseRepository;
+import com.retailchain.franchise.domain.port.output.WriteRateTracker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,13 +19,14 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
-import static org.mockito.Mockito.lenient;
 
 @ExtendWith(MockitoExtension.class)
 class FranchiseServiceTest {
@@ -30,7 +35,16 @@ class FranchiseServiceTest {
     private FranchiseRepository franchiseRepository;
     
     @Mock
-    private CacheRepository cacheRepository;
+    private CacheLoader cacheLoader;
+    
+    @Mock
+    private CacheNamespaces cacheNamespaces;
+    
+    @Mock
+    private WriteRateTracker writeRateTracker;
+    
+    @Mock
+    private CacheTagInvalidator cacheTagInvalidator;
     
     @InjectMocks
     private FranchiseService franchiseService;
@@ -62,7 +76,7 @@ class FranchiseServiceTest {
                 .build();
         
         when(franchiseRepository.save(any(Franchise.class))).thenReturn(Mono.just(savedFranchise));
-        when(cacheRepository.set(anyString(), any(), any(Duration.class))).thenReturn(Mono.empty());
+        when(cacheLoader.put(anyString(), any(), any(CachePolicy.class))).thenReturn(Mono.empty());
         
         // When & Then
         StepVerifier.create(franchiseService.createFranchise(newFranchise))
@@ -70,7 +84,7 @@ class FranchiseServiceTest {
                 .verifyComplete();
         
         verify(franchiseRepository).save(any(Franchise.class));
-        verify(cacheRepository).set(eq("franchise:2"), eq(savedFranchise), any(Duration.class));
+        verify(cacheLoader).put(eq("franchise:2"), eq(savedFranchise), any(CachePolicy.class));
     }
     
     @Test
@@ -86,8 +100,7 @@ class FranchiseServiceTest {
         
         when(franchiseRepository.findById(1L)).thenReturn(Mono.just(testFranchise));
         when(franchiseRepository.update(any(Franchise.class))).thenReturn(Mono.just(updatedFranchise));
-        when(cacheRepository.delete(anyString())).thenReturn(Mono.empty());
-        when(cacheRepository.set(anyString(), any(), any(Duration.class))).thenReturn(Mono.empty());
+        when(cacheLoader.put(anyString(), any(), any(CachePolicy.class))).thenReturn(Mono.empty());
         
         // When & Then
         StepVerifier.create(franchiseService.updateFranchiseName(1L, newName))
@@ -96,7 +109,7 @@ class FranchiseServiceTest {
         
         verify(franchiseRepository).findById(1L);
         verify(franchiseRepository).update(any(Franchise.class));
-        verify(cacheRepository).delete("franchise:1");
+        verify(cacheLoader).put(eq("franchise:1"), eq(updatedFranchise), any(CachePolicy.class));
     }
     
     @Test
@@ -116,11 +129,7 @@ class FranchiseServiceTest {
     @Test
     void getFranchiseById_CacheHit() {
         // Given
-        when(cacheRepository.get("franchise:1", Franchise.class))
-            .thenReturn(Mono.just(testFranchise));
-        
-        // Mock el repositorio con lenient por si acaso se llama
-        lenient().when(franchiseRepository.findById(1L))
+        when(cacheLoader.get(eq("franchise:1"), eq(Franchise.class), any(CachePolicy.class), any()))
             .thenReturn(Mono.just(testFranchise));
         
         // When & Then
@@ -128,25 +137,86 @@ class FranchiseServiceTest {
                 .expectNext(testFranchise)
                 .verifyComplete();
         
-        // Verificar que se llamó al cache
-        verify(cacheRepository).get("franchise:1", Franchise.class);
+        verify(franchiseRepository, never()).findById(anyLong());
     }
     
     @Test
     void getFranchiseById_CacheMiss() {
         // Given
-        when(cacheRepository.get("franchise:1", Franchise.class)).thenReturn(Mono.empty());
+        when(cacheLoader.get(eq("franchise:1"), eq(Franchise.class), any(CachePolicy.class), any()))
+            .thenAnswer(invocation -> invocation.<Supplier<Mono<Franchise>>>getArgument(3).get());
         when(franchiseRepository.findById(1L)).thenReturn(Mono.just(testFranchise));
-        when(cacheRepository.set(anyString(), any(), any(Duration.class))).thenReturn(Mono.empty());
         
         // When & Then
         StepVerifier.create(franchiseService.getFranchiseById(1L))
                 .expectNext(testFranchise)
                 .verifyComplete();
         
-        verify(cacheRepository).get("franchise:1", Franchise.class);
         verify(franchiseRepository).findById(1L);
-        verify(cacheRepository).set(eq("franchise:1"), eq(testFranchise), any(Duration.class));
+    }
+    
+    @Test
+    void getFranchiseById_NotFound() {
+        // Given
+        when(cacheLoader.get(eq("franchise:999"), eq(Franchise.class), any(CachePolicy.class), any()))
+            .thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(franchiseService.getFranchiseById(999L))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+    
+    @Test
+    void getFranchisesByIds_LoadsOnlyCacheMisses() {
+        // Given
+        Franchise franchise2 = Franchise.builder()
+                .id(2L)
+                .name("Franchise 2")
+                .build();
+        
+        when(cacheLoader.getAll(List.of("franchise:1", "franchise:2", "franchise:3"), Franchise.class))
+                .thenReturn(Mono.just(Map.of("franchise:1", testFranchise)));
+        when(franchiseRepository.findAllById(List.of(2L, 3L))).thenReturn(Flux.just(franchise2));
+        when(cacheLoader.admitAll(eq(Map.of("franchise:2", franchise2)), any(CachePolicy.class)))
+                .thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(franchiseService.getFranchisesByIds(List.of(1L, 2L, 3L, 1L)))
+                .expectNext(testFranchise)
+                .expectNext(franchise2)
+                .verifyComplete();
+        
+        verify(franchiseRepository, never()).findById(anyLong());
+    }
+    
+    @Test
+    void getFranchisesByIds_AllCached() {
+        // Given
+        when(cacheLoader.getAll(List.of("franchise:1"), Franchise.class))
+                .thenReturn(Mono.just(Map.of("franchise:1", testFranchise)));
+        
+        // When & Then
+        StepVerifier.create(franchiseService.getFranchisesByIds(List.of(1L)))
+                .expectNext(testFranchise)
+                .verifyComplete();
+        
+        verify(franchiseRepository, never()).findAllById(any());
+        verify(cacheLoader, never()).admitAll(any(), any());
+    }
+    
+    @Test
+    void invalidateFranchiseCache_BumpsNamespaceAndEvictsRecord() {
+        // Given
+        when(cacheNamespaces.invalidate("franchise:1")).thenReturn(Mono.empty());
+        when(cacheLoader.evict("franchise:1")).thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(franchiseService.invalidateFranchiseCache(1L))
+                .verifyComplete();
+        
+        verify(cacheNamespaces).invalidate("franchise:1");
+        verify(cacheLoader).evict("franchise:1");
     }
     
     @Test
@@ -159,14 +229,14 @@ class FranchiseServiceTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
         
-        when(franchiseRepository.findAll()).thenReturn(Flux.just(testFranchise, franchise2));
+        when(franchiseRepository.findAll(null, 100)).thenReturn(Flux.just(testFranchise, franchise2));
         
         // When & Then
-        StepVerifier.create(franchiseService.getAllFranchises())
+        StepVerifier.create(franchiseService.getAllFranchises(null, 100))
                 .expectNext(testFranchise)
                 .expectNext(franchise2)
                 .verifyComplete();
         
-        verify(franchiseRepository).findAll();
+        verify(franchiseRepository).findAll(null, 100);
     }
 }
\ No newline at end of file
@@ -1,16 +1,30 @@
 package com.retailchain.franchise.domain.service;
 
+import com.retailchain.franchise.application.dto.StockRankingDto;
+import com.retailchain.franchise.application.dto.StockReportDto;
 import com.retailchain.franchise.application.service.ProductService;
+import com.retailchain.franchise.domain.exception.BusinessException;
 import com.retailchain.franchise.domain.exception.ResourceNotFoundException;
+import com.retailchain.franchise.domain.exception.ValidationException;
 import com.retailchain.franchise.domain.model.Branch;
 import com.retailchain.franchise.domain.model.Franchise;
 import com.retailchain.franchise.domain.model.Product;
+import com.retailchain.franchise.domain.model.RankedProduct;
+import com.retailchain.franchise.domain.model.StockUpdate;
+import com.retailchain.franchise.domain.model.StockUpdateResult;
 import com.retailchain.franchise.domain.port.output.BranchRepository;
+import com.retailchain.franchise.domain.port.output.CacheTagInvalidator;
 import com.retailchain.franchise.domain.port.output.FranchiseRepository;
+import com.retailchain.franchise.domain.port.output.MaxStockIndex;
 import com.retailchain.franchise.domain.port.output.ProductRepository;
+import com.retailchain.franchise.domain.port.output.StockRankingIndex;
+import com.retailchain.franchise.domain.port.output.StockReportRepository;
+import com.retailchain.franchise.domain.port.output.StockWriteBuffer;
+import com.retailchain.franchise.domain.port.output.WriteRateTracker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -19,8 +33,13 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +54,24 @@ class ProductServiceTest {
     @Mock
     private FranchiseRepository franchiseRepository;
     
+    @Mock
+    private MaxStockIndex maxStockIndex;
+    
+    @Mock
+    private StockReportRepository stockReportRepository;
+    
+    @Mock
+    private StockWriteBuffer stockWriteBuffer;
+    
+    @Mock
+    private WriteRateTracker writeRateTracker;
+    
+    @Mock
+    private CacheTagInvalidator cacheTagInvalidator;
+    
+    @Mock
+    private StockRankingIndex stockRankingIndex;
+    
     @InjectMocks
     private ProductService productService;
     
@@ -113,6 +150,44 @@ class ProductServiceTest {
         verify(productRepository, never()).save(any());
     }
     
+    @Test
+    void addProductsToBranch_Success() {
+        // Given
+        Product first = Product.builder().name("First").stock(10).build();
+        Product second = Product.builder().name("Second").stock(20).build();
+        
+        when(branchRepository.findById(1L)).thenReturn(Mono.just(testBranch));
+        when(productRepository.saveAll(any())).thenAnswer(invocation -> {
+            Flux<Product> products = invocation.getArgument(0);
+            return products.index().map(indexed -> {
+                indexed.getT2().setId(10L + indexed.getT1());
+                return indexed.getT2();
+            });
+        });
+        
+        // When & Then
+        StepVerifier.create(productService.addProductsToBranch(1L, Flux.just(first, second)))
+                .expectNextMatches(p -> p.getId().equals(10L) && p.getBranchId().equals(1L))
+                .expectNextMatches(p -> p.getId().equals(11L) && p.getBranchId().equals(1L))
+                .verifyComplete();
+        
+        verify(branchRepository, times(1)).findById(1L);
+        verify(maxStockIndex, times(2)).put(any(Product.class));
+    }
+    
+    @Test
+    void addProductsToBranch_BranchNotFound() {
+        // Given
+        when(branchRepository.findById(999L)).thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(productService.addProductsToBranch(999L, Flux.just(testProduct)))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+        
+        verify(productRepository, never()).saveAll(any());
+    }
+    
     @Test
     void deleteProductFromBranch_Success() {
         // Given
@@ -164,6 +239,127 @@ class ProductServiceTest {
         
         verify(productRepository).findById(1L);
         verify(productRepository).update(any(Product.class));
+        verify(maxStockIndex).updateStock(1L, 200);
+        verify(writeRateTracker).recordWrite("product:1");
+    }
+    
+    @Test
+    void adjustProductStock_Success() {
+        // Given
+        when(productRepository.adjustStock(1L, -5)).thenReturn(Mono.just(95));
+        
+        // When & Then
+        StepVerifier.create(productService.adjustProductStock(1L, -5))
+                .expectNext(95)
+                .verifyComplete();
+        
+        verify(productRepository, never()).findById(anyLong());
+        verify(maxStockIndex).updateStock(1L, 95);
+    }
+    
+    @Test
+    void adjustProductStock_InsufficientStock() {
+        // Given
+        when(productRepository.adjustStock(1L, -500)).thenReturn(Mono.empty());
+        when(productRepository.findById(1L)).thenReturn(Mono.just(testProduct));
+        
+        // When & Then
+        StepVerifier.create(productService.adjustProductStock(1L, -500))
+                .expectErrorMatches(error -> error instanceof BusinessException
+                        && "INSUFFICIENT_STOCK".equals(((BusinessException) error).getCode()))
+                .verify();
+        
+        verify(maxStockIndex, never()).updateStock(anyLong(), anyInt());
+    }
+    
+    @Test
+    void adjustProductStock_NotFound() {
+        // Given
+        when(productRepository.adjustStock(999L, 1)).thenReturn(Mono.empty());
+        when(productRepository.findById(999L)).thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(productService.adjustProductStock(999L, 1))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+    
+    @Test
+    void updateProductStock_Buffered() {
+        // Given
+        when(stockWriteBuffer.isEnabled()).thenReturn(true);
+        when(productRepository.findById(1L)).thenReturn(Mono.just(testProduct));
+        
+        // When & Then
+        StepVerifier.create(productService.updateProductStock(1L, 200))
+                .expectNextMatches(product -> product.getStock() == 200)
+                .verifyComplete();
+        
+        verify(stockWriteBuffer).submit(1L, 200, List.of());
+        verify(productRepository, never()).update(any(Product.class));
+        verify(maxStockIndex).updateStock(1L, 200);
+    }
+    
+    @Test
+    void adjustProductStock_FlushesBufferedValueFirst() {
+        // Given
+        when(stockWriteBuffer.isEnabled()).thenReturn(true);
+        when(stockWriteBuffer.flush(1L)).thenReturn(Mono.empty());
+        when(productRepository.adjustStock(1L, 5)).thenReturn(Mono.just(205));
+        
+        // When & Then
+        StepVerifier.create(productService.adjustProductStock(1L, 5))
+                .expectNext(205)
+                .verifyComplete();
+        
+        InOrder order = inOrder(stockWriteBuffer, productRepository);
+        order.verify(stockWriteBuffer).flush(1L);
+        order.verify(productRepository).adjustStock(1L, 5);
+    }
+    
+    @Test
+    void updateProductStocks_ReportsNotFound() {
+        // Given
+        StockUpdateResult updated = StockUpdateResult.builder()
+                .productId(1L).stock(5).status(StockUpdateResult.Status.UPDATED).build();
+        StockUpdateResult missing = StockUpdateResult.builder()
+                .productId(999L).stock(7).status(StockUpdateResult.Status.NOT_FOUND).build();
+        
+        when(productRepository.updateStocks(any())).thenReturn(Flux.just(updated, missing));
+        
+        // When & Then
+        StepVerifier.create(productService.updateProductStocks(Flux.just(
+                        new StockUpdate(1L, 5), new StockUpdate(999L, 7))))
+                .expectNext(updated)
+                .expectNext(missing)
+                .verifyComplete();
+        
+        verify(productRepository, never()).findById(any());
+        verify(maxStockIndex).updateStock(1L, 5);
+        verify(maxStockIndex, never()).updateStock(eq(999L), anyInt());
+    }
+    
+    @Test
+    void updateProductStocks_RanksUpdatedStocksInOneWrite() {
+        // Given
+        StockUpdateResult first = StockUpdateResult.builder()
+                .productId(1L).stock(5).status(StockUpdateResult.Status.UPDATED).build();
+        StockUpdateResult second = StockUpdateResult.builder()
+                .productId(2L).stock(8).status(StockUpdateResult.Status.UPDATED).build();
+        StockUpdateResult missing = StockUpdateResult.builder()
+                .productId(999L).stock(7).status(StockUpdateResult.Status.NOT_FOUND).build();
+        
+        when(stockRankingIndex.isEnabled()).thenReturn(true);
+        when(productRepository.updateStocks(any())).thenReturn(Flux.just(first, second, missing));
+        when(stockRankingIndex.updateStocks(Map.of(1L, 5, 2L, 8))).thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(productService.updateProductStocks(Flux.just(
+                        new StockUpdate(1L, 5), new StockUpdate(2L, 8), new StockUpdate(999L, 7))))
+                .expectNext(first, second, missing)
+                .verifyComplete();
+        
+        verify(stockRankingIndex, times(1)).updateStocks(any());
     }
     
     @Test
@@ -191,42 +387,94 @@ class ProductServiceTest {
         verify(productRepository).update(any(Product.class));
     }
     
+    @Test
+    void updateProductName_InvalidatesCachedResponses() {
+        // Given
+        when(productRepository.findById(1L)).thenReturn(Mono.just(testProduct));
+        when(productRepository.update(any(Product.class))).thenReturn(Mono.just(testProduct));
+        when(cacheTagInvalidator.isEnabled()).thenReturn(true);
+        when(branchRepository.findById(1L)).thenReturn(Mono.just(testBranch));
+        when(cacheTagInvalidator.invalidate(List.of("franchise:1", "branch:1"))).thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(productService.updateProductName(1L, "Updated Product"))
+                .expectNext(testProduct)
+                .verifyComplete();
+        
+        verify(cacheTagInvalidator).invalidate(List.of("franchise:1", "branch:1"));
+    }
+    
     @Test
     void getMaxStockProductsByFranchise_Success() {
         // Given
-        Product product2 = Product.builder()
-                .id(2L)
-                .name("Product 2")
+        StockReportDto row = StockReportDto.builder()
+                .productId(2L)
+                .productName("Product 2")
                 .stock(150)
                 .branchId(1L)
+                .branchName("Test Branch")
+                .franchiseId(1L)
+                .franchiseName("Test Franchise")
+                .build();
+        
+        when(stockReportRepository.findMaxStockProductsByFranchise(1L)).thenReturn(Flux.just(row));
+        
+        // When & Then
+        StepVerifier.create(productService.getMaxStockProductsByFranchise(1L))
+                .expectNext(row)
+                .verifyComplete();
+        
+        verify(stockReportRepository).findMaxStockProductsByFranchise(1L);
+        verify(franchiseRepository, never()).findById(any());
+        verify(branchRepository, never()).findById(any());
+    }
+    
+    @Test
+    void getMaxStockProductsByFranchise_NoProducts() {
+        // Given
+        when(stockReportRepository.findMaxStockProductsByFranchise(1L)).thenReturn(Flux.empty());
+        when(franchiseRepository.findById(1L)).thenReturn(Mono.just(testFranchise));
+        
+        // When & Then
+        StepVerifier.create(productService.getMaxStockProductsByFranchise(1L))
+                .verifyComplete();
+        
+        verify(franchiseRepository).findById(1L);
+    }
+    
+    @Test
+    void getMaxStockProductsByFranchise_FromIndex() {
+        // Given
+        Product indexed = Product.builder()
+                .id(3L)
+                .name("Indexed Product")
+                .stock(300)
+                .branchId(1L)
                 .build();
         
+        when(maxStockIndex.isReady()).thenReturn(true);
         when(franchiseRepository.findById(1L)).thenReturn(Mono.just(testFranchise));
         when(branchRepository.findByFranchiseId(1L)).thenReturn(Flux.just(testBranch));
-        when(productRepository.findProductsWithMaxStockByBranches(any()))
-                .thenReturn(Flux.just(product2));
-        when(branchRepository.findById(1L)).thenReturn(Mono.just(testBranch));
+        when(maxStockIndex.findMaxStockProducts(1L)).thenReturn(List.of(indexed));
         
         // When & Then
         StepVerifier.create(productService.getMaxStockProductsByFranchise(1L))
                 .expectNextMatches(dto -> 
-                    dto.getProductId().equals(2L) &&
-                    dto.getProductName().equals("Product 2") &&
-                    dto.getStock().equals(150) &&
-                    dto.getBranchId().equals(1L) &&
+                    dto.getProductId().equals(3L) &&
+                    dto.getStock().equals(300) &&
                     dto.getBranchName().equals("Test Branch") &&
-                    dto.getFranchiseId().equals(1L) &&
                     dto.getFranchiseName().equals("Test Franchise")
                 )
                 .verifyComplete();
         
-        verify(franchiseRepository).findById(1L);
-        verify(branchRepository).findByFranchiseId(1L);
+        verify(stockReportRepository, never()).findMaxStockProductsByFranchise(any());
+        verify(branchRepository, never()).findById(any());
     }
     
     @Test
     void getMaxStockProductsByFranchise_FranchiseNotFound() {
         // Given
+        when(stockReportRepository.findMaxStockProductsByFranchise(999L)).thenReturn(Flux.empty());
         when(franchiseRepository.findById(999L)).thenReturn(Mono.empty());
         
         // When & Then
@@ -237,4 +485,122 @@ class ProductServiceTest {
         verify(franchiseRepository).findById(999L);
         verify(branchRepository, never()).findByFranchiseId(any());
     }
-}
\ No newline at end of file
+    
+    @Test
+    void updateProductStock_UpdatesStockRanking() {
+        // Given
+        Product updatedProduct = Product.builder()
+                .id(1L)
+                .name("Test Product")
+                .stock(200)
+                .branchId(1L)
+                .build();
+        
+        when(stockRankingIndex.isEnabled()).thenReturn(true);
+        when(productRepository.findById(1L)).thenReturn(Mono.just(testProduct));
+        when(productRepository.update(any(Product.class))).thenReturn(Mono.just(updatedProduct));
+        when(stockRankingIndex.updateStocks(Map.of(1L, 200))).thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(productService.updateProductStock(1L, 200))
+                .expectNext(updatedProduct)
+                .verifyComplete();
+        
+        verify(stockRankingIndex).updateStocks(Map.of(1L, 200));
+    }
+    
+    @Test
+    void getStockRanking_SkipsProductsDeletedSinceRanked() {
+        // Given
+        RankedProduct first = RankedProduct.builder().productId(1L).stock(100).rank(1L).build();
+        RankedProduct deleted = RankedProduct.builder().productId(2L).stock(80).rank(2L).build();
+        
+        when(stockRankingIndex.isEnabled()).thenReturn(true);
+        when(franchiseRepository.findById(1L)).thenReturn(Mono.just(testFranchise));
+        when(stockRankingIndex.findRanked(1L, null, 2, false)).thenReturn(Flux.just(first, deleted));
+        when(productRepository.findAllById(List.of(1L, 2L))).thenReturn(Flux.just(testProduct));
+        
+        // When & Then
+        StepVerifier.create(productService.getStockRanking(1L, null, 2, "top"))
+                .expectNext(StockRankingDto.builder()
+                        .rank(1L)
+                        .productId(1L)
+                        .productName("Test Product")
+                        .stock(100)
+                        .branchId(1L)
+                        .build())
+                .verifyComplete();
+        
+        verify(productRepository, never()).findById(any());
+    }
+    
+    @Test
+    void getStockRanking_BranchOfAnotherFranchise() {
+        // Given
+        Branch otherBranch = Branch.builder().id(2L).name("Other Branch").franchiseId(2L).build();
+        
+        when(stockRankingIndex.isEnabled()).thenReturn(true);
+        when(franchiseRepository.findById(1L)).thenReturn(Mono.just(testFranchise));
+        when(branchRepository.findById(2L)).thenReturn(Mono.just(otherBranch));
+        
+        // When & Then
+        StepVerifier.create(productService.getStockRanking(1L, 2L, 10, "bottom"))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+        
+        verify(stockRankingIndex, never()).findRanked(any(), any(), anyInt(), anyBoolean());
+    }
+    
+    @Test
+    void getStockRanking_InvalidK() {
+        // When & Then
+        StepVerifier.create(productService.getStockRanking(1L, null, 0, "top"))
+                .expectError(ValidationException.class)
+                .verify();
+        
+        verify(franchiseRepository, never()).findById(any());
+    }
+    
+    @Test
+    void getStockRanking_Disabled() {
+        // Given
+        when(stockRankingIndex.isEnabled()).thenReturn(false);
+        
+        // When & Then
+        StepVerifier.create(productService.getStockRanking(1L, null, 10, "top"))
+                .expectErrorMatches(e -> e instanceof BusinessException
+                        && "STOCK_RANKING_DISABLED".equals(((BusinessException) e).getCode()))
+                .verify();
+    }
+    
+    @Test
+    void getProductStockRank_NotRanked() {
+        // Given
+        when(stockRankingIndex.isEnabled()).thenReturn(true);
+        when(franchiseRepository.findById(1L)).thenReturn(Mono.just(testFranchise));
+        when(stockRankingIndex.findRank(1L, 99L)).thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(productService.getProductStockRank(1L, 99L))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+    
+    @Test
+    void rebuildStockRanking_Success() {
+        // Given
+        when(stockRankingIndex.isEnabled()).thenReturn(true);
+        when(franchiseRepository.findById(1L)).thenReturn(Mono.just(testFranchise));
+        when(branchRepository.findByFranchiseId(1L)).thenReturn(Flux.just(testBranch));
+        when(productRepository.findByBranchId(1L)).thenReturn(Flux.just(testProduct));
+        when(stockRankingIndex.rebuild(eq(1L), eq(List.of(1L)), any())).thenAnswer(invocation -> {
+            Flux<Product> products = invocation.getArgument(2);
+            return products.count();
+        });
+        
+        // When & Then
+        StepVerifier.create(productService.rebuildStockRanking(1L))
+                .expectNext(1L)
+                .verifyComplete();
+    }
+}
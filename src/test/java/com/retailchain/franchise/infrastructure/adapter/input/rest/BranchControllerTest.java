@@ -118,7 +118,7 @@ class BranchControllerTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
         
-        when(branchUseCase.getBranchesByFranchiseId(1L))
+        when(branchUseCase.getBranchesByFranchiseId(1L, null, 100))
                 .thenReturn(Flux.just(testBranch, branch2));
         
         // When & Then
@@ -136,7 +136,7 @@ class BranchControllerTest {
     @Test
     void getBranchesByFranchise_EmptyList() {
         // Given
-        when(branchUseCase.getBranchesByFranchiseId(999L))
+        when(branchUseCase.getBranchesByFranchiseId(999L, null, 100))
                 .thenReturn(Flux.empty());
         
         // When & Then
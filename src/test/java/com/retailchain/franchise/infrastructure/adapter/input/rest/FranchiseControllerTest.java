@@ -13,8 +13,10 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -120,6 +122,34 @@ class FranchiseControllerTest {
                 .jsonPath("$.name").isEqualTo("Test Franchise");
     }
     
+    @Test
+    void getFranchisesByIds_Success() {
+        // Given
+        when(franchiseUseCase.getFranchisesByIds(List.of(1L, 2L)))
+                .thenReturn(Flux.just(testFranchise));
+        
+        // When & Then
+        webTestClient.get()
+                .uri("/api/v1/franchises/lookup?ids=1,2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(1);
+    }
+    
+    @Test
+    void invalidateFranchiseCache_NoContent() {
+        // Given
+        when(franchiseUseCase.invalidateFranchiseCache(1L)).thenReturn(Mono.empty());
+        
+        // When & Then
+        webTestClient.delete()
+                .uri("/api/v1/franchises/1/cache")
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+    
     @Test
     void getAllFranchises_Success() {
         // Given
@@ -130,7 +160,7 @@ class FranchiseControllerTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
         
-        when(franchiseUseCase.getAllFranchises())
+        when(franchiseUseCase.getAllFranchises(null, 100))
                 .thenReturn(Flux.just(testFranchise, franchise2));
         
         // When & Then
@@ -148,7 +178,7 @@ class FranchiseControllerTest {
     @Test
     void getAllFranchises_EmptyList() {
         // Given
-        when(franchiseUseCase.getAllFranchises())
+        when(franchiseUseCase.getAllFranchises(null, 100))
                 .thenReturn(Flux.empty());
         
         // When & Then
@@ -160,4 +190,52 @@ class FranchiseControllerTest {
                 .jsonPath("$").isArray()
                 .jsonPath("$").isEmpty();
     }
-}
\ No newline at end of file
+    
+    @Test
+    void getAllFranchises_WithCursor() {
+        // Given
+        Franchise franchise2 = Franchise.builder()
+                .id(2L)
+                .name("Franchise 2")
+                .build();
+        
+        when(franchiseUseCase.getAllFranchises(1L, 10))
+                .thenReturn(Flux.just(franchise2));
+        
+        // When & Then
+        webTestClient.get()
+                .uri("/api/v1/franchises?after=1&limit=10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(2);
+    }
+    
+    @Test
+    void getAllFranchises_Ndjson() {
+        // Given
+        Franchise franchise2 = Franchise.builder()
+                .id(2L)
+                .name("Franchise 2")
+                .build();
+        
+        when(franchiseUseCase.getAllFranchises(null, 100))
+                .thenReturn(Flux.just(testFranchise, franchise2));
+        
+        // When & Then
+        Flux<FranchiseDto> body = webTestClient.get()
+                .uri("/api/v1/franchises")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(FranchiseDto.class)
+                .getResponseBody();
+        
+        StepVerifier.create(body)
+                .expectNextMatches(dto -> dto.getId().equals(1L))
+                .expectNextMatches(dto -> dto.getId().equals(2L))
+                .verifyComplete();
+    }
+}
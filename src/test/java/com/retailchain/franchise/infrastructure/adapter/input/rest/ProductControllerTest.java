@@ -1,10 +1,15 @@
 package com.retailchain.franchise.infrastructure.adapter.input.rest;
 
+import com.retailchain.franchise.application.dto.AdjustStockRequest;
 import com.retailchain.franchise.application.dto.ProductDto;
+import com.retailchain.franchise.application.dto.StockRankingDto;
 import com.retailchain.franchise.application.dto.StockReportDto;
 import com.retailchain.franchise.application.dto.UpdateNameRequest;
 import com.retailchain.franchise.application.dto.UpdateStockRequest;
+import com.retailchain.franchise.application.dto.StockUpdateItemRequest;
+import com.retailchain.franchise.domain.exception.BusinessException;
 import com.retailchain.franchise.domain.model.Product;
+import com.retailchain.franchise.domain.model.StockUpdateResult;
 import com.retailchain.franchise.domain.port.input.ProductUseCase;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +22,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -97,6 +103,34 @@ class ProductControllerTest {
                 .expectStatus().isBadRequest();
     }
     
+    @Test
+    void addProducts_Batch_Success() {
+        // Given
+        Product second = Product.builder()
+                .id(2L)
+                .name("Second Product")
+                .stock(20)
+                .branchId(1L)
+                .build();
+        
+        when(productUseCase.addProductsToBranch(eq(1L), any()))
+                .thenReturn(Flux.just(testProduct, second));
+        
+        // When & Then
+        webTestClient.post()
+                .uri("/api/v1/branches/1/products/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(
+                        ProductDto.builder().name("Test Product").stock(100).build(),
+                        ProductDto.builder().name("Second Product").stock(20).build()))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(1)
+                .jsonPath("$[1].id").isEqualTo(2)
+                .jsonPath("$[1].name").isEqualTo("Second Product");
+    }
+    
     @Test
     void deleteProduct_Success() {
         // Given
@@ -137,6 +171,62 @@ class ProductControllerTest {
                 .jsonPath("$.stock").isEqualTo(150);
     }
     
+    @Test
+    void adjustProductStock_Success() {
+        // Given
+        when(productUseCase.adjustProductStock(1L, -3)).thenReturn(Mono.just(97));
+        
+        // When & Then
+        webTestClient.post()
+                .uri("/api/v1/products/1/stock/adjust")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new AdjustStockRequest(-3))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.productId").isEqualTo(1)
+                .jsonPath("$.delta").isEqualTo(-3)
+                .jsonPath("$.stock").isEqualTo(97);
+    }
+    
+    @Test
+    void adjustProductStock_InsufficientStock() {
+        // Given
+        when(productUseCase.adjustProductStock(1L, -500))
+                .thenReturn(Mono.error(new BusinessException("INSUFFICIENT_STOCK", "Not enough stock")));
+        
+        // When & Then
+        webTestClient.post()
+                .uri("/api/v1/products/1/stock/adjust")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new AdjustStockRequest(-500))
+                .exchange()
+                .expectStatus().isEqualTo(422);
+    }
+    
+    @Test
+    void updateProductStocks_Success() {
+        // Given
+        when(productUseCase.updateProductStocks(any()))
+                .thenReturn(Flux.just(
+                        new StockUpdateResult(1L, 150, StockUpdateResult.Status.UPDATED),
+                        new StockUpdateResult(999L, 10, StockUpdateResult.Status.NOT_FOUND)));
+        
+        // When & Then
+        webTestClient.patch()
+                .uri("/api/v1/products/stock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(
+                        new StockUpdateItemRequest(1L, 150),
+                        new StockUpdateItemRequest(999L, 10)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo("UPDATED")
+                .jsonPath("$[1].productId").isEqualTo(999)
+                .jsonPath("$[1].status").isEqualTo("NOT_FOUND");
+    }
+    
     @Test
     void updateProductName_Success() {
         // Given
@@ -164,6 +254,22 @@ class ProductControllerTest {
                 .jsonPath("$.name").isEqualTo("Updated Product");
     }
     
+    @Test
+    void getProductsByBranch_Success() {
+        // Given
+        when(productUseCase.getProductsByBranchId(1L, null, 100))
+                .thenReturn(Flux.just(testProduct));
+        
+        // When & Then
+        webTestClient.get()
+                .uri("/api/v1/branches/1/products")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("Test Product");
+    }
+    
     @Test
     void getMaxStockProducts_Success() {
         // Given
@@ -209,4 +315,44 @@ class ProductControllerTest {
                 .jsonPath("$").isArray()
                 .jsonPath("$").isEmpty();
     }
+    
+    @Test
+    void getStockRanking_Success() {
+        // Given
+        StockRankingDto ranked = StockRankingDto.builder()
+                .rank(1L)
+                .productId(1L)
+                .productName("Test Product")
+                .stock(100)
+                .branchId(1L)
+                .build();
+        
+        when(productUseCase.getStockRanking(1L, 1L, 5, "bottom"))
+                .thenReturn(Flux.just(ranked));
+        
+        // When & Then
+        webTestClient.get()
+                .uri("/api/v1/franchises/1/stock-ranking?k=5&order=bottom&branchId=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].rank").isEqualTo(1)
+                .jsonPath("$[0].productName").isEqualTo("Test Product")
+                .jsonPath("$[0].stock").isEqualTo(100);
+    }
+    
+    @Test
+    void rebuildStockRanking_Success() {
+        // Given
+        when(productUseCase.rebuildStockRanking(1L)).thenReturn(Mono.just(42L));
+        
+        // When & Then
+        webTestClient.post()
+                .uri("/api/v1/franchises/1/stock-ranking/rebuild")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.franchiseId").isEqualTo(1)
+                .jsonPath("$.products").isEqualTo(42);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,185 @@
+package com.retailchain.franchise.infrastructure.adapter.input.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FranchiseAffinityFilterTest {
+    
+    private static final String NODE_A = "http://localhost:8080";
+    private static final String NODE_B = "http://localhost:8081";
+    private static final List<String> NODES = List.of(NODE_A, NODE_B);
+    
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger handlerCalls;
+    private AtomicReference<ClientRequest> forwarded;
+    private WebClient.Builder webClientBuilder;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        handlerCalls = new AtomicInteger();
+        forwarded = new AtomicReference<>();
+        webClientBuilder = WebClient.builder().exchangeFunction(request -> {
+            forwarded.set(request);
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                    .body("{\"id\":7}")
+                    .build());
+        });
+    }
+    
+    @Test
+    void ring_SpreadsFranchisesOverAllNodes() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 100);
+        
+        // When
+        long ownedByA = LongStream.rangeClosed(1, 1000)
+                .filter(id -> ring.ownerOf(Long.toString(id)).equals(NODE_A))
+                .count();
+        
+        // Then
+        assertThat(ownedByA).isBetween(350L, 650L);
+        assertThat(new ConsistentHashRing(NODES, 100).ownerOf("42")).isEqualTo(ring.ownerOf("42"));
+    }
+    
+    @Test
+    void headerMode_ServesLocallyAndNamesOwner() {
+        // Given
+        long foreignId = franchiseOwnedBy(NODE_B);
+        FranchiseAffinityFilter filter = filter("header");
+        MockServerWebExchange exchange = get("/api/v1/franchises/" + foreignId + "/branches");
+        
+        // When
+        StepVerifier.create(filter.filter(exchange, handler())).verifyComplete();
+        
+        // Then
+        assertThat(handlerCalls).hasValue(1);
+        assertThat(exchange.getResponse().getHeaders().getFirst(FranchiseAffinityFilter.OWNER_HEADER)).isEqualTo(NODE_B);
+    }
+    
+    @Test
+    void forwardMode_ProxiesGetsForOtherNodes() {
+        // Given
+        long foreignId = franchiseOwnedBy(NODE_B);
+        FranchiseAffinityFilter filter = filter("forward");
+        MockServerWebExchange exchange = get("/api/v1/franchises/" + foreignId + "?fields=name");
+        
+        // When
+        StepVerifier.create(filter.filter(exchange, handler())).verifyComplete();
+        
+        // Then
+        assertThat(handlerCalls).hasValue(0);
+        assertThat(forwarded.get().url().toString()).isEqualTo(NODE_B + "/api/v1/franchises/" + foreignId + "?fields=name");
+        assertThat(forwarded.get().headers().getFirst(FranchiseAffinityFilter.FORWARDED_HEADER)).isEqualTo(NODE_A);
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("{\"id\":7}");
+        assertThat(meterRegistry.get("franchise.http.affinity.requests").tag("result", "forwarded").counter().count())
+                .isEqualTo(1.0);
+    }
+    
+    @Test
+    void forwardMode_OwnedAndAlreadyForwardedRequestsRunLocally() {
+        // Given
+        FranchiseAffinityFilter filter = filter("forward");
+        MockServerWebExchange owned = get("/api/v1/franchises/" + franchiseOwnedBy(NODE_A));
+        MockServerWebExchange alreadyForwarded = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/api/v1/franchises/" + franchiseOwnedBy(NODE_B))
+                .header(FranchiseAffinityFilter.FORWARDED_HEADER, NODE_B));
+        
+        // When
+        StepVerifier.create(filter.filter(owned, handler())).verifyComplete();
+        StepVerifier.create(filter.filter(alreadyForwarded, handler())).verifyComplete();
+        
+        // Then
+        assertThat(handlerCalls).hasValue(2);
+        assertThat(forwarded.get()).isNull();
+    }
+    
+    @Test
+    void forwardMode_FallsBackWhenOwnerTimesOut() {
+        // Given
+        webClientBuilder = WebClient.builder().exchangeFunction(request ->
+                Mono.error(new TimeoutException("No response within 2000ms")));
+        FranchiseAffinityFilter filter = filter("forward");
+        MockServerWebExchange exchange = get("/api/v1/franchises/" + franchiseOwnedBy(NODE_B));
+        
+        // When
+        StepVerifier.create(filter.filter(exchange, handler())).verifyComplete();
+        
+        // Then
+        assertThat(handlerCalls).hasValue(1);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(meterRegistry.get("franchise.http.affinity.requests").tag("result", "fallback").counter().count())
+                .isEqualTo(1.0);
+    }
+    
+    @Test
+    void forwardMode_FallbackDropsOwnerHeadersWhenBodyFailsBeforeCommit() {
+        // Given
+        webClientBuilder = WebClient.builder().exchangeFunction(request -> Mono.just(
+                ClientResponse.create(HttpStatus.BAD_GATEWAY)
+                        .header("X-Owner-Only", "1")
+                        .body(Flux.<DataBuffer>error(new IllegalStateException("Connection reset")))
+                        .build()));
+        FranchiseAffinityFilter filter = filter("forward");
+        long foreignId = franchiseOwnedBy(NODE_B);
+        MockServerWebExchange exchange = get("/api/v1/franchises/" + foreignId);
+        
+        // When
+        StepVerifier.create(filter.filter(exchange, handler())).verifyComplete();
+        
+        // Then
+        assertThat(handlerCalls).hasValue(1);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getHeaders().containsKey("X-Owner-Only")).isFalse();
+        assertThat(exchange.getResponse().getHeaders().getFirst(FranchiseAffinityFilter.OWNER_HEADER)).isEqualTo(NODE_B);
+    }
+    
+    private FranchiseAffinityFilter filter(String mode) {
+        return new FranchiseAffinityFilter(webClientBuilder, meterRegistry, NODES, NODE_A, mode, 100,
+                Duration.ofSeconds(2));
+    }
+    
+    private long franchiseOwnedBy(String node) {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 100);
+        return LongStream.rangeClosed(1, 1000)
+                .filter(id -> ring.ownerOf(Long.toString(id)).equals(node))
+                .findFirst()
+                .orElseThrow();
+    }
+    
+    private MockServerWebExchange get(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path).accept(MediaType.APPLICATION_JSON));
+    }
+    
+    private WebFilterChain handler() {
+        return (ServerWebExchange exchange) -> {
+            handlerCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            return exchange.getResponse().setComplete();
+        };
+    }
+}
@@ -0,0 +1,197 @@
+package com.retailchain.franchise.infrastructure.adapter.input.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PrefetchFilterTest {
+    
+    private static final List<String> CHILDREN = List.of("branches", "max-stock-products");
+    
+    private SimpleMeterRegistry meterRegistry;
+    private List<ClientRequest> prefetched;
+    private PrefetchFilter filter;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        prefetched = new CopyOnWriteArrayList<>();
+        WebClient.Builder webClientBuilder = WebClient.builder().exchangeFunction(request -> {
+            prefetched.add(request);
+            return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+        });
+        filter = new PrefetchFilter(webClientBuilder, meterRegistry, Duration.ofSeconds(1), 0.6, 3, 100, CHILDREN, 8,
+                Duration.ofSeconds(5), Duration.ofSeconds(2), true);
+        WebServer webServer = mock(WebServer.class);
+        when(webServer.getPort()).thenReturn(8080);
+        WebServerInitializedEvent event = mock(WebServerInitializedEvent.class);
+        when(event.getWebServer()).thenReturn(webServer);
+        filter.onWebServerInitialized(event);
+    }
+    
+    @Test
+    void tracker_PredictsChildrenThatUsuallyFollow() {
+        // Given
+        AccessSequenceTracker tracker = new AccessSequenceTracker(1000, 0.6, 3, 100,
+                List.of("branches", "max-stock-products", "late"));
+        for (long id = 1; id <= 4; id++) {
+            tracker.recordParent(id, 0);
+            tracker.recordChild(id, "branches", 500);
+            if (id == 1) {
+                tracker.recordChild(id, "max-stock-products", 500);
+            }
+            // Outside the window, so not counted
+            tracker.recordChild(id, "late", 2000);
+        }
+        
+        // When & Then
+        assertThat(tracker.predictedChildren()).containsExactly("branches");
+    }
+    
+    @Test
+    void tracker_IgnoresUnknownChildRoutes() {
+        // Given
+        AccessSequenceTracker tracker = new AccessSequenceTracker(1000, 0.6, 3, 100, List.of("branches"));
+        for (long id = 1; id <= 4; id++) {
+            tracker.recordParent(id, 0);
+            tracker.recordChild(id, "branches", 500);
+            tracker.recordChild(id, "scanner-" + id, 500);
+            tracker.recordChild(id, "scanner", 500);
+        }
+        
+        // When & Then
+        assertThat(tracker.predictedChildren()).containsExactly("branches");
+    }
+    
+    @Test
+    void childNotFound_IsNotLearned() {
+        // Given
+        for (long id = 1; id <= 3; id++) {
+            run(get("/api/v1/franchises/" + id));
+            StepVerifier.create(filter.filter(get("/api/v1/franchises/" + id + "/branches"), handler(HttpStatus.NOT_FOUND)))
+                    .verifyComplete();
+        }
+        prefetched.clear();
+        
+        // When
+        run(get("/api/v1/franchises/9"));
+        
+        // Then
+        assertThat(prefetched).isEmpty();
+    }
+    
+    @Test
+    void franchiseRead_PrefetchesLearnedChildren() {
+        // Given
+        for (long id = 1; id <= 3; id++) {
+            run(get("/api/v1/franchises/" + id));
+            run(get("/api/v1/franchises/" + id + "/branches"));
+        }
+        prefetched.clear();
+        
+        // When
+        run(get("/api/v1/franchises/9"));
+        
+        // Then
+        assertThat(prefetched).hasSize(1);
+        assertThat(prefetched.get(0).url().toString()).isEqualTo("http://localhost:8080/api/v1/franchises/9/branches");
+        assertThat(prefetched.get(0).headers().getFirst(PrefetchFilter.PREFETCH_HEADER)).isEqualTo("1");
+        assertThat(prefetched.get(0).headers().getAccept()).containsExactly(MediaType.APPLICATION_JSON);
+    }
+    
+    @Test
+    void franchiseNotFound_PrefetchesNothing() {
+        // Given
+        for (long id = 1; id <= 3; id++) {
+            run(get("/api/v1/franchises/" + id));
+            run(get("/api/v1/franchises/" + id + "/branches"));
+        }
+        prefetched.clear();
+        
+        // When
+        StepVerifier.create(filter.filter(get("/api/v1/franchises/404"), handler(HttpStatus.NOT_FOUND))).verifyComplete();
+        
+        // Then
+        assertThat(prefetched).isEmpty();
+    }
+    
+    @Test
+    void responseCacheDisabled_FilterStaysInactive() {
+        // Given
+        PrefetchFilter inactive = new PrefetchFilter(WebClient.builder().exchangeFunction(request -> {
+            prefetched.add(request);
+            return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+        }), meterRegistry, Duration.ofSeconds(1), 0.6, 3, 100, CHILDREN, 8, Duration.ofSeconds(5), Duration.ofSeconds(2), false);
+        
+        // When
+        for (long id = 1; id <= 5; id++) {
+            StepVerifier.create(inactive.filter(get("/api/v1/franchises/" + id), handler())).verifyComplete();
+            StepVerifier.create(inactive.filter(get("/api/v1/franchises/" + id + "/branches"), handler())).verifyComplete();
+        }
+        
+        // Then
+        assertThat(prefetched).isEmpty();
+        assertThat(meterRegistry.find("franchise.http.prefetch.requests").counter()).isNull();
+    }
+    
+    @Test
+    void prefetchedChild_CountsHitOrWaste() {
+        // Given
+        for (long id = 1; id <= 3; id++) {
+            run(get("/api/v1/franchises/" + id));
+            run(get("/api/v1/franchises/" + id + "/branches"));
+        }
+        run(get("/api/v1/franchises/8"));
+        run(get("/api/v1/franchises/9"));
+        
+        // When
+        run(get("/api/v1/franchises/8/branches"));
+        filter.sweepExpired(System.currentTimeMillis() + 10_000);
+        
+        // Then: franchise 3 was already prefetched while learning, franchise 9 was never requested
+        assertThat(meterRegistry.get("franchise.http.prefetch.outcome").tag("result", "hit").counter().count())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.get("franchise.http.prefetch.outcome").tag("result", "waste").counter().count())
+                .isEqualTo(1.0);
+    }
+    
+    private void run(MockServerWebExchange exchange) {
+        StepVerifier.create(filter.filter(exchange, handler())).verifyComplete();
+    }
+    
+    private MockServerWebExchange get(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path).accept(MediaType.APPLICATION_JSON));
+    }
+    
+    private WebFilterChain handler() {
+        return handler(HttpStatus.OK);
+    }
+    
+    private WebFilterChain handler(HttpStatus status) {
+        return (ServerWebExchange exchange) -> {
+            exchange.getResponse().setStatusCode(status);
+            return exchange.getResponse().setComplete();
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package com.retailchain.franchise.infrastructure.adapter.input.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCollapsingFilterTest {
+    
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCollapsingFilter filter;
+    private AtomicInteger handlerCalls;
+    private Sinks.Empty<Void> release;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RequestCollapsingFilter(meterRegistry, "/api/", List.of("Accept", "Authorization"));
+        handlerCalls = new AtomicInteger();
+        release = Sinks.empty();
+    }
+    
+    @Test
+    void identicalConcurrentGets_RunHandlerOnce() {
+        // Given
+        MockServerWebExchange first = get("/api/v1/franchises/1");
+        MockServerWebExchange second = get("/api/v1/franchises/1");
+        
+        // When
+        StepVerifier.create(Mono.when(
+                        filter.filter(first, handler()),
+                        filter.filter(second, handler()),
+                        Mono.fromRunnable(release::tryEmitEmpty)))
+                .verifyComplete();
+        
+        // Then
+        assertThat(handlerCalls).hasValue(1);
+        assertThat(first.getResponse().getBodyAsString().block()).isEqualTo("{\"id\":1}");
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("{\"id\":1}");
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(meterRegistry.get("franchise.http.collapsing.requests").tag("role", "follower").counter().count())
+                .isEqualTo(1.0);
+    }
+    
+    @Test
+    void differentKeyHeaders_AreNotCollapsed() {
+        // Given
+        MockServerWebExchange first = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/franchises/1")
+                .header("Authorization", "Bearer a"));
+        MockServerWebExchange second = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/franchises/1")
+                .header("Authorization", "Bearer b"));
+        
+        // When
+        StepVerifier.create(Mono.when(
+                        filter.filter(first, handler()),
+                        filter.filter(second, handler()),
+                        Mono.fromRunnable(release::tryEmitEmpty)))
+                .verifyComplete();
+        
+        // Then
+        assertThat(handlerCalls).hasValue(2);
+    }
+    
+    @Test
+    void streamingRequests_AreNotCollapsed() {
+        // Given
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/franchises")
+                .accept(MediaType.APPLICATION_NDJSON));
+        release.tryEmitEmpty();
+        
+        // When
+        StepVerifier.create(filter.filter(exchange, handler()))
+                .verifyComplete();
+        
+        // Then
+        assertThat(handlerCalls).hasValue(1);
+        assertThat(meterRegistry.get("franchise.http.collapsing.requests").tag("role", "leader").counter().count())
+                .isZero();
+    }
+    
+    @Test
+    void sequentialGets_EachRunTheHandler() {
+        // Given
+        release.tryEmitEmpty();
+        
+        // When
+        StepVerifier.create(filter.filter(get("/api/v1/franchises/1"), handler())).verifyComplete();
+        StepVerifier.create(filter.filter(get("/api/v1/franchises/1"), handler())).verifyComplete();
+        
+        // Then
+        assertThat(handlerCalls).hasValue(2);
+    }
+    
+    private MockServerWebExchange get(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path).accept(MediaType.APPLICATION_JSON));
+    }
+    
+    private WebFilterChain handler() {
+        return (ServerWebExchange exchange) -> {
+            handlerCalls.incrementAndGet();
+            return release.asMono().then(Mono.defer(() -> {
+                exchange.getResponse().setStatusCode(HttpStatus.OK);
+                exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+                return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+            }));
+        };
+    }
+}
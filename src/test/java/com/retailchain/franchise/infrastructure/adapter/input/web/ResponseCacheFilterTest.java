@@ -0,0 +1,159 @@
+package com.retailchain.franchise.infrastructure.adapter.input.web;
+
+import com.retailchain.franchise.domain.port.output.CacheTagInvalidator;
+import com.retailchain.franchise.infrastructure.adapter.output.persistence.memory.InMemoryResponseCache;
+import com.retailchain.franchise.infrastructure.adapter.output.persistence.redis.RedisCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResponseCacheFilterTest {
+    
+    @Mock
+    private ReactiveRedisTemplate<String, String> redisTemplate;
+    
+    @Mock
+    private ReactiveRedisConnectionFactory connectionFactory;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private InMemoryResponseCache responseCache;
+    private ResponseCacheFilter filter;
+    private AtomicInteger handlerCalls;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RedisCircuitBreaker circuitBreaker = new RedisCircuitBreaker(connectionFactory, meterRegistry, false, 5,
+                Duration.ofMillis(250), Duration.ofMillis(50), Duration.ofSeconds(5));
+        responseCache = new InMemoryResponseCache(redisTemplate, circuitBreaker, meterRegistry, true,
+                Duration.ofMinutes(5), 2);
+        filter = new ResponseCacheFilter(responseCache, meterRegistry,
+                List.of("/api/v1/franchises/{franchiseId}", "/api/v1/branches/{branchId}/products"),
+                List.of("limit", "after"));
+        handlerCalls = new AtomicInteger();
+    }
+    
+    @Test
+    void repeatedGet_IsServedFromStoredBody() {
+        // Given
+        StepVerifier.create(filter.filter(get("/api/v1/franchises/1"), handler(HttpStatus.OK))).verifyComplete();
+        MockServerWebExchange second = get("/api/v1/franchises/1");
+        
+        // When
+        StepVerifier.create(filter.filter(second, handler(HttpStatus.OK))).verifyComplete();
+        
+        // Then
+        assertThat(handlerCalls).hasValue(1);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("{\"id\":1}");
+        assertThat(second.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(second.getResponse().getHeaders().getFirst("X-Response-Cache")).isEqualTo("HIT");
+        assertThat(meterRegistry.get("franchise.http.response_cache.requests").tag("result", "hit").counter().count())
+                .isEqualTo(1.0);
+    }
+    
+    @Test
+    void invalidatedTag_RunsHandlerAgain() {
+        // Given
+        when(redisTemplate.convertAndSend(anyString(), anyString())).thenReturn(Mono.just(1L));
+        StepVerifier.create(filter.filter(get("/api/v1/franchises/1"), handler(HttpStatus.OK))).verifyComplete();
+        StepVerifier.create(responseCache.invalidate(List.of(CacheTagInvalidator.franchiseTag(1L)))).verifyComplete();
+        
+        // When
+        StepVerifier.create(filter.filter(get("/api/v1/franchises/1"), handler(HttpStatus.OK))).verifyComplete();
+        
+        // Then
+        assertThat(handlerCalls).hasValue(2);
+    }
+    
+    @Test
+    void errorResponses_AreNotStored() {
+        // Given
+        StepVerifier.create(filter.filter(get("/api/v1/franchises/1"), handler(HttpStatus.NOT_FOUND))).verifyComplete();
+        
+        // When
+        StepVerifier.create(filter.filter(get("/api/v1/franchises/1"), handler(HttpStatus.OK))).verifyComplete();
+        
+        // Then
+        assertThat(handlerCalls).hasValue(2);
+    }
+    
+    @Test
+    void unlistedPaths_AreNotCached() {
+        // Given
+        StepVerifier.create(filter.filter(get("/api/v1/franchises"), handler(HttpStatus.OK))).verifyComplete();
+        
+        // When
+        StepVerifier.create(filter.filter(get("/api/v1/franchises"), handler(HttpStatus.OK))).verifyComplete();
+        
+        // Then
+        assertThat(handlerCalls).hasValue(2);
+    }
+    
+    @Test
+    void unlistedQueryParams_ShareOneEntry() {
+        // Given
+        StepVerifier.create(filter.filter(get("/api/v1/branches/1/products?limit=10&x=1"), handler(HttpStatus.OK)))
+                .verifyComplete();
+        
+        // When
+        StepVerifier.create(filter.filter(get("/api/v1/branches/1/products?x=2&limit=10"), handler(HttpStatus.OK)))
+                .verifyComplete();
+        StepVerifier.create(filter.filter(get("/api/v1/branches/1/products?limit=20"), handler(HttpStatus.OK)))
+                .verifyComplete();
+        
+        // Then
+        assertThat(handlerCalls).hasValue(2);
+    }
+    
+    @Test
+    void fullCache_EvictsOldestEntry() {
+        // Given
+        StepVerifier.create(filter.filter(get("/api/v1/franchises/1"), handler(HttpStatus.OK))).verifyComplete();
+        StepVerifier.create(filter.filter(get("/api/v1/franchises/2"), handler(HttpStatus.OK))).verifyComplete();
+        StepVerifier.create(filter.filter(get("/api/v1/franchises/3"), handler(HttpStatus.OK))).verifyComplete();
+        
+        // When
+        StepVerifier.create(filter.filter(get("/api/v1/franchises/3"), handler(HttpStatus.OK))).verifyComplete();
+        StepVerifier.create(filter.filter(get("/api/v1/franchises/1"), handler(HttpStatus.OK))).verifyComplete();
+        
+        // Then: the newest entry was stored and the oldest made room for it
+        assertThat(handlerCalls).hasValue(4);
+    }
+    
+    private MockServerWebExchange get(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path).accept(MediaType.APPLICATION_JSON));
+    }
+    
+    private WebFilterChain handler(HttpStatus status) {
+        return (ServerWebExchange exchange) -> {
+            handlerCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(status);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+        };
+    }
+}
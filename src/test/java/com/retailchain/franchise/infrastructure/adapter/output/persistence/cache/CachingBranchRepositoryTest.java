@@ -0,0 +1,168 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.cache;
+
+import com.retailchain.franchise.application.cache.CacheNamespaces;
+import com.retailchain.franchise.domain.model.Branch;
+import com.retailchain.franchise.domain.port.output.CacheAccessTracker;
+import com.retailchain.franchise.domain.port.output.CacheRepository;
+import com.retailchain.franchise.domain.port.output.WriteRateTracker;
+import com.retailchain.franchise.infrastructure.adapter.output.persistence.mysql.adapter.BranchRepositoryAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingBranchRepositoryTest {
+    
+    @Mock
+    private BranchRepositoryAdapter delegate;
+    
+    @Mock
+    private CacheRepository cacheRepository;
+    
+    @Mock
+    private WriteRateTracker writeRateTracker;
+    
+    @Mock
+    private CacheAccessTracker accessTracker;
+    
+    private CachingBranchRepository repository;
+    private Branch testBranch;
+    
+    @BeforeEach
+    void setUp() {
+        lenient().when(writeRateTracker.ttlFor(anyString(), any(Duration.class)))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+        repository = new CachingBranchRepository(delegate, cacheRepository, new CacheNamespaces(cacheRepository),
+                writeRateTracker, accessTracker, new SimpleMeterRegistry(),
+                Duration.ofMinutes(10), Duration.ofSeconds(30));
+        testBranch = Branch.builder()
+                .id(1L)
+                .name("Test Branch")
+                .franchiseId(1L)
+                .build();
+    }
+    
+    @Test
+    void findByFranchiseId_CachedListSkipsDatabase() {
+        // Given
+        when(cacheRepository.increment("franchise:1:gen", 0)).thenReturn(Mono.just(3L));
+        when(cacheRepository.get("franchise:1:g3:branches", Branch[].class))
+                .thenReturn(Mono.just(new Branch[] {testBranch}));
+        
+        // When & Then
+        StepVerifier.create(repository.findByFranchiseId(1L))
+                .expectNext(testBranch)
+                .verifyComplete();
+        
+        verify(delegate, never()).findByFranchiseId(anyLong());
+    }
+    
+    @Test
+    void findByFranchiseId_CacheMissCachesList() {
+        // Given
+        when(cacheRepository.increment("franchise:1:gen", 0)).thenReturn(Mono.just(3L));
+        when(cacheRepository.get("franchise:1:g3:branches", Branch[].class)).thenReturn(Mono.empty());
+        when(delegate.findByFranchiseId(1L)).thenReturn(Flux.just(testBranch));
+        when(cacheRepository.set(eq("franchise:1:g3:branches"), any(Branch[].class), any(Duration.class)))
+                .thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(repository.findByFranchiseId(1L))
+                .expectNext(testBranch)
+                .verifyComplete();
+    }
+    
+    @Test
+    void findByFranchiseIdPage_CacheMissCachesPage() {
+        // Given
+        when(cacheRepository.increment("franchise:1:gen", 0)).thenReturn(Mono.just(3L));
+        when(cacheRepository.get("franchise:1:g3:branches:after:0:limit:20", Branch[].class))
+                .thenReturn(Mono.empty());
+        when(delegate.findByFranchiseId(1L, null, 20)).thenReturn(Flux.just(testBranch));
+        when(cacheRepository.set(eq("franchise:1:g3:branches:after:0:limit:20"), any(Branch[].class),
+                any(Duration.class))).thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(repository.findByFranchiseId(1L, null, 20))
+                .expectNext(testBranch)
+                .verifyComplete();
+    }
+    
+    @Test
+    void findByFranchiseIdPage_CachedPageSkipsDatabase() {
+        // Given
+        when(cacheRepository.increment("franchise:1:gen", 0)).thenReturn(Mono.just(3L));
+        when(cacheRepository.get("franchise:1:g3:branches:after:5:limit:20", Branch[].class))
+                .thenReturn(Mono.just(new Branch[] {testBranch}));
+        
+        // When & Then
+        StepVerifier.create(repository.findByFranchiseId(1L, 5L, 20))
+                .expectNext(testBranch)
+                .verifyComplete();
+        
+        verify(delegate, never()).findByFranchiseId(anyLong(), any(), anyInt());
+    }
+    
+    @Test
+    void save_WritesBranchAndInvalidatesFranchiseNamespace() {
+        // Given
+        when(delegate.save(testBranch)).thenReturn(Mono.just(testBranch));
+        when(cacheRepository.set(eq("branch:1"), eq(testBranch), any(Duration.class))).thenReturn(Mono.empty());
+        when(cacheRepository.increment("franchise:1:gen", 1)).thenReturn(Mono.just(4L));
+        when(cacheRepository.deleteAll(List.of("branch:1:missing"))).thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(repository.save(testBranch))
+                .expectNext(testBranch)
+                .verifyComplete();
+        
+        verify(cacheRepository).increment("franchise:1:gen", 1);
+        verify(cacheRepository).deleteAll(List.of("branch:1:missing"));
+    }
+    
+    @Test
+    void findByFranchiseId_GenerationUnavailableReadsDatabase() {
+        // Given
+        when(cacheRepository.increment("franchise:1:gen", 0)).thenReturn(Mono.empty());
+        when(delegate.findByFranchiseId(1L)).thenReturn(Flux.just(testBranch));
+        
+        // When & Then
+        StepVerifier.create(repository.findByFranchiseId(1L))
+                .expectNext(testBranch)
+                .verifyComplete();
+        
+        verify(cacheRepository, never()).get(any(), eq(Branch[].class));
+    }
+    
+    @Test
+    void findById_KnownMissingSkipsDatabase() {
+        // Given
+        when(cacheRepository.get("branch:999", Branch.class)).thenReturn(Mono.empty());
+        when(cacheRepository.get("branch:999:missing", Boolean.class)).thenReturn(Mono.just(Boolean.TRUE));
+        
+        // When & Then
+        StepVerifier.create(repository.findById(999L))
+                .verifyComplete();
+        
+        verify(delegate, never()).findById(anyLong());
+    }
+}
@@ -0,0 +1,189 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.cache;
+
+import com.retailchain.franchise.domain.model.Product;
+import com.retailchain.franchise.domain.model.StockUpdate;
+import com.retailchain.franchise.domain.model.StockUpdateResult;
+import com.retailchain.franchise.domain.port.output.CacheAccessTracker;
+import com.retailchain.franchise.domain.port.output.CacheRepository;
+import com.retailchain.franchise.domain.port.output.WriteRateTracker;
+import com.retailchain.franchise.infrastructure.adapter.output.persistence.mysql.adapter.ProductRepositoryAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingProductRepositoryTest {
+    
+    @Mock
+    private ProductRepositoryAdapter delegate;
+    
+    @Mock
+    private CacheRepository cacheRepository;
+    
+    @Mock
+    private WriteRateTracker writeRateTracker;
+    
+    @Mock
+    private CacheAccessTracker accessTracker;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private CachingProductRepository repository;
+    private Product testProduct;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(writeRateTracker.ttlFor(anyString(), any(Duration.class)))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+        repository = new CachingProductRepository(delegate, cacheRepository, writeRateTracker, accessTracker, meterRegistry,
+                Duration.ofMinutes(1), Duration.ofSeconds(30));
+        testProduct = Product.builder()
+                .id(1L)
+                .name("Test Product")
+                .stock(100)
+                .branchId(1L)
+                .build();
+    }
+    
+    @Test
+    void findById_CacheHitSkipsDatabase() {
+        // Given
+        when(cacheRepository.get("product:1", Product.class)).thenReturn(Mono.just(testProduct));
+        
+        // When & Then
+        StepVerifier.create(repository.findById(1L))
+                .expectNext(testProduct)
+                .verifyComplete();
+        
+        verify(delegate, never()).findById(anyLong());
+        assertThat(meterRegistry.get("franchise.cache.requests").tag("result", "hit").counter().count())
+                .isEqualTo(1.0);
+    }
+    
+    @Test
+    void findById_CacheMissLoadsAndCaches() {
+        // Given
+        when(cacheRepository.get("product:1", Product.class)).thenReturn(Mono.empty());
+        when(cacheRepository.get("product:1:missing", Boolean.class)).thenReturn(Mono.empty());
+        when(delegate.findById(1L)).thenReturn(Mono.just(testProduct));
+        when(cacheRepository.set(eq("product:1"), eq(testProduct), any(Duration.class))).thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(repository.findById(1L))
+                .expectNext(testProduct)
+                .verifyComplete();
+        
+        verify(cacheRepository).set(eq("product:1"), eq(testProduct), any(Duration.class));
+    }
+    
+    @Test
+    void findById_CacheErrorFallsBackToDatabase() {
+        // Given
+        when(cacheRepository.get("product:1", Product.class))
+                .thenReturn(Mono.error(new RuntimeException("Connection refused")));
+        when(cacheRepository.get("product:1:missing", Boolean.class))
+                .thenReturn(Mono.error(new RuntimeException("Connection refused")));
+        when(delegate.findById(1L)).thenReturn(Mono.just(testProduct));
+        when(cacheRepository.set(eq("product:1"), any(), any(Duration.class)))
+                .thenReturn(Mono.error(new RuntimeException("Connection refused")));
+        
+        // When & Then
+        StepVerifier.create(repository.findById(1L))
+                .expectNext(testProduct)
+                .verifyComplete();
+    }
+    
+    @Test
+    void findById_NotFoundRemembersMissingId() {
+        // Given
+        when(cacheRepository.get("product:999", Product.class)).thenReturn(Mono.empty());
+        when(cacheRepository.get("product:999:missing", Boolean.class)).thenReturn(Mono.empty());
+        when(delegate.findById(999L)).thenReturn(Mono.empty());
+        when(cacheRepository.set("product:999:missing", Boolean.TRUE, Duration.ofSeconds(30))).thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(repository.findById(999L))
+                .verifyComplete();
+        
+        verify(cacheRepository).set("product:999:missing", Boolean.TRUE, Duration.ofSeconds(30));
+    }
+    
+    @Test
+    void findById_KnownMissingSkipsDatabase() {
+        // Given
+        when(cacheRepository.get("product:999", Product.class)).thenReturn(Mono.empty());
+        when(cacheRepository.get("product:999:missing", Boolean.class)).thenReturn(Mono.just(Boolean.TRUE));
+        
+        // When & Then
+        StepVerifier.create(repository.findById(999L))
+                .verifyComplete();
+        
+        verify(delegate, never()).findById(anyLong());
+        assertThat(meterRegistry.get("franchise.cache.negative.hits").tag("cache", "product").counter().count())
+                .isEqualTo(1.0);
+    }
+    
+    @Test
+    void saveAll_EvictsMissingMarkersOfNewIds() {
+        // Given
+        Product second = Product.builder().id(2L).name("Second").stock(1).branchId(1L).build();
+        when(delegate.saveAll(any())).thenReturn(Flux.just(testProduct, second));
+        when(cacheRepository.deleteAll(List.of("product:1:missing", "product:2:missing"))).thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(repository.saveAll(Flux.just(testProduct, second)))
+                .expectNext(testProduct, second)
+                .verifyComplete();
+        
+        verify(cacheRepository).deleteAll(List.of("product:1:missing", "product:2:missing"));
+    }
+    
+    @Test
+    void updateStocks_EvictsOnlyUpdatedProducts() {
+        // Given
+        when(delegate.updateStocks(any())).thenReturn(Flux.just(
+                new StockUpdateResult(1L, 5, StockUpdateResult.Status.UPDATED),
+                new StockUpdateResult(999L, 7, StockUpdateResult.Status.NOT_FOUND)));
+        when(cacheRepository.deleteAll(List.of("product:1"))).thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(repository.updateStocks(Flux.just(new StockUpdate(1L, 5), new StockUpdate(999L, 7))))
+                .expectNextCount(2)
+                .verifyComplete();
+        
+        verify(cacheRepository).deleteAll(List.of("product:1"));
+    }
+    
+    @Test
+    void adjustStock_EvictsProduct() {
+        // Given
+        when(delegate.adjustStock(1L, -1)).thenReturn(Mono.just(99));
+        when(cacheRepository.deleteAll(List.of("product:1"))).thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(repository.adjustStock(1L, -1))
+                .expectNext(99)
+                .verifyComplete();
+        
+        verify(cacheRepository).deleteAll(List.of("product:1"));
+    }
+}
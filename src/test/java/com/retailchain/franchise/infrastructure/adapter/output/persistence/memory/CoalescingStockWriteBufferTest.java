@@ -0,0 +1,194 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.memory;
+
+import com.retailchain.franchise.domain.model.StockUpdate;
+import com.retailchain.franchise.domain.model.StockUpdateResult;
+import com.retailchain.franchise.domain.port.output.CacheTagInvalidator;
+import com.retailchain.franchise.domain.port.output.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CoalescingStockWriteBufferTest {
+    
+    @Mock
+    private ProductRepository productRepository;
+    
+    @Mock
+    private CacheTagInvalidator cacheTagInvalidator;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private CoalescingStockWriteBuffer buffer;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        buffer = new CoalescingStockWriteBuffer(productRepository, cacheTagInvalidator, meterRegistry, true,
+                Duration.ofSeconds(1), 1000, Duration.ofSeconds(5));
+    }
+    
+    @Test
+    void flushAll_WritesOnlyLatestValuePerProduct() {
+        // Given
+        buffer.submit(1L, 10, List.of());
+        buffer.submit(1L, 20, List.of());
+        buffer.submit(2L, 5, List.of());
+        when(productRepository.updateStocks(any())).thenAnswer(invocation -> {
+            Flux<StockUpdate> updates = invocation.getArgument(0);
+            return updates.map(update -> updated(update.getProductId(), update.getStock()));
+        });
+        
+        // When & Then
+        StepVerifier.create(buffer.flushAll())
+                .verifyComplete();
+        
+        assertThat(buffer.depth()).isZero();
+        assertThat(meterRegistry.get("franchise.stock.buffer.flush").timer().count()).isEqualTo(1);
+    }
+    
+    @Test
+    void flushAll_KeepsValueSubmittedWhileWriting() {
+        // Given
+        buffer.submit(1L, 10, List.of());
+        when(productRepository.updateStocks(any())).thenAnswer(invocation -> {
+            buffer.submit(1L, 11, List.of());
+            return Flux.just(updated(1L, 10));
+        });
+        
+        // When & Then
+        StepVerifier.create(buffer.flushAll())
+                .verifyComplete();
+        
+        assertThat(buffer.depth()).isEqualTo(1);
+    }
+    
+    @Test
+    void flushAll_KeepsValuesPendingOnFailure() {
+        // Given
+        buffer.submit(1L, 10, List.of());
+        when(productRepository.updateStocks(any()))
+                .thenReturn(Flux.error(new RuntimeException("Connection refused")));
+        
+        // When & Then
+        StepVerifier.create(buffer.flushAll())
+                .verifyComplete();
+        
+        assertThat(buffer.depth()).isEqualTo(1);
+        assertThat(meterRegistry.get("franchise.stock.buffer.depth").gauge().value()).isEqualTo(1.0);
+    }
+    
+    @Test
+    void flushAll_InvalidatesCachedResponsesOnceWritten() {
+        // Given
+        buffer.submit(1L, 10, List.of("franchise:1", "branch:1"));
+        buffer.submit(2L, 5, List.of("franchise:1", "branch:2"));
+        when(cacheTagInvalidator.isEnabled()).thenReturn(true);
+        when(cacheTagInvalidator.invalidate(any())).thenReturn(Mono.empty());
+        when(productRepository.updateStocks(any())).thenReturn(Flux.just(updated(1L, 10), updated(2L, 5)));
+        
+        // When & Then
+        StepVerifier.create(buffer.flushAll())
+                .verifyComplete();
+        
+        verify(cacheTagInvalidator).invalidate(Set.of("franchise:1", "branch:1", "branch:2"));
+    }
+    
+    @Test
+    void flushAll_KeepsCachedResponsesWhenWriteFails() {
+        // Given
+        buffer.submit(1L, 10, List.of("branch:1"));
+        when(productRepository.updateStocks(any()))
+                .thenReturn(Flux.error(new RuntimeException("Connection refused")));
+        
+        // When & Then
+        StepVerifier.create(buffer.flushAll())
+                .verifyComplete();
+        
+        verify(cacheTagInvalidator, never()).invalidate(any());
+    }
+    
+    @Test
+    void flush_NothingPendingForProduct() {
+        // When & Then
+        StepVerifier.create(buffer.flush(1L))
+                .verifyComplete();
+        
+        verify(productRepository, never()).updateStocks(any());
+    }
+    
+    @Test
+    void flush_WaitsForBatchInFlight() {
+        // Given: a slow flush has taken its snapshot of product 1 and is still writing it
+        TestPublisher<StockUpdateResult> slowBatch = TestPublisher.create();
+        buffer.submit(1L, 10, List.of());
+        when(productRepository.updateStocks(any())).thenReturn(slowBatch.flux());
+        buffer.flushAll().subscribe();
+        
+        // When: an adjust flushes the product before applying its delta
+        AtomicBoolean flushed = new AtomicBoolean();
+        buffer.flush(1L).doOnSuccess(v -> flushed.set(true)).subscribe();
+        
+        // Then: the adjust may only proceed once the older snapshot has landed
+        assertThat(flushed).isFalse();
+        slowBatch.emit(updated(1L, 10));
+        assertThat(flushed).isTrue();
+        verify(productRepository, times(1)).updateStocks(any());
+        assertThat(buffer.depth()).isZero();
+    }
+    
+    @Test
+    void flush_FailsWhenPendingValueCannotBeWritten() {
+        // Given
+        buffer.submit(1L, 10, List.of());
+        when(productRepository.updateStocks(any()))
+                .thenReturn(Flux.error(new RuntimeException("Connection refused")));
+        
+        // When & Then
+        StepVerifier.create(buffer.flush(1L))
+                .expectError(RuntimeException.class)
+                .verify();
+        
+        assertThat(buffer.depth()).isEqualTo(1);
+    }
+    
+    @Test
+    void discard_WaitsForBatchInFlight() {
+        // Given
+        TestPublisher<StockUpdateResult> slowBatch = TestPublisher.create();
+        buffer.submit(1L, 10, List.of());
+        when(productRepository.updateStocks(any())).thenReturn(slowBatch.flux());
+        buffer.flushAll().subscribe();
+        
+        // When
+        AtomicBoolean discarded = new AtomicBoolean();
+        buffer.discard(1L).doOnSuccess(v -> discarded.set(true)).subscribe();
+        
+        // Then: a bulk update waiting on the discard cannot be overwritten by the batch
+        assertThat(discarded).isFalse();
+        slowBatch.emit(updated(1L, 10));
+        assertThat(discarded).isTrue();
+    }
+    
+    private StockUpdateResult updated(Long productId, Integer stock) {
+        return new StockUpdateResult(productId, stock, StockUpdateResult.Status.UPDATED);
+    }
+}
@@ -0,0 +1,89 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountMinSketchAccessTrackerTest {
+    
+    @Test
+    void shouldAdmit_OnlyKeysReadRepeatedly() {
+        // Given
+        CountMinSketchAccessTracker tracker = new CountMinSketchAccessTracker(true, 2, 1024, 10);
+        
+        // When
+        tracker.record("franchise:1");
+        tracker.record("franchise:1");
+        tracker.record("franchise:2");
+        
+        // Then
+        assertThat(tracker.shouldAdmit("franchise:1")).isTrue();
+        assertThat(tracker.shouldAdmit("franchise:2")).isFalse();
+    }
+    
+    @Test
+    void shouldAdmit_EverythingWhenDisabled() {
+        // Given
+        CountMinSketchAccessTracker tracker = new CountMinSketchAccessTracker(false, 2, 1024, 10);
+        
+        // When & Then
+        assertThat(tracker.shouldAdmit("franchise:1")).isTrue();
+    }
+    
+    @Test
+    void hottestKeys_OrderedByFrequency() {
+        // Given
+        CountMinSketchAccessTracker tracker = new CountMinSketchAccessTracker(true, 2, 1024, 2);
+        
+        // When
+        for (int i = 0; i < 5; i++) {
+            tracker.record("franchise:1");
+        }
+        for (int i = 0; i < 3; i++) {
+            tracker.record("franchise:2");
+        }
+        tracker.record("franchise:3");
+        
+        // Then
+        assertThat(List.copyOf(tracker.hottestKeys(10).keySet())).containsExactly("franchise:1", "franchise:2");
+        assertThat(tracker.hottestKeys(1)).containsOnlyKeys("franchise:1");
+    }
+    
+    @Test
+    void hottestKeys_ColdReadsDoNotDisplaceButRisingKeyDoes() {
+        // Given
+        CountMinSketchAccessTracker tracker = new CountMinSketchAccessTracker(true, 2, 1024, 2);
+        for (int i = 0; i < 5; i++) {
+            tracker.record("franchise:1");
+        }
+        for (int i = 0; i < 3; i++) {
+            tracker.record("franchise:2");
+        }
+        
+        // When: franchise:3 only passes the coldest hot key on its fourth read
+        for (int i = 0; i < 4; i++) {
+            tracker.record("franchise:3");
+        }
+        tracker.record("franchise:4");
+        
+        // Then
+        assertThat(tracker.hottestKeys(10)).containsOnlyKeys("franchise:1", "franchise:3")
+                .containsEntry("franchise:3", 4);
+    }
+    
+    @Test
+    void record_AgingHalvesCounters() {
+        // Given
+        CountMinSketchAccessTracker tracker = new CountMinSketchAccessTracker(true, 2, 64, 10);
+        
+        // When
+        for (int i = 0; i < 640; i++) {
+            tracker.record("franchise:1");
+        }
+        
+        // Then
+        assertThat(tracker.frequency("franchise:1")).isEqualTo(320);
+    }
+}
@@ -0,0 +1,101 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.memory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EwmaWriteRateTrackerTest {
+    
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+    
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private EwmaWriteRateTracker tracker;
+    
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new EwmaWriteRateTracker(true, Duration.ofSeconds(30), Duration.ofHours(1), 0.5, 1000,
+                meterRegistry, clock);
+    }
+    
+    @Test
+    void ttlFor_FrequentlyWrittenKeyGetsShortTtl() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            tracker.recordWrite("product:1");
+            clock.advance(Duration.ofMinutes(2));
+        }
+        
+        // When & Then
+        assertThat(tracker.ttlFor("product:1", DEFAULT_TTL)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(meterRegistry.get("franchise.cache.ttl").tag("cache", "product").summary().count())
+                .isEqualTo(1);
+    }
+    
+    @Test
+    void ttlFor_ClampedToMinimum() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            tracker.recordWrite("product:1");
+            clock.advance(Duration.ofSeconds(1));
+        }
+        
+        // When & Then
+        assertThat(tracker.ttlFor("product:1", DEFAULT_TTL)).isEqualTo(Duration.ofSeconds(30));
+    }
+    
+    @Test
+    void ttlFor_UnwrittenKeyUsesDefaultUntilObservedForMaxTtl() {
+        // When & Then
+        assertThat(tracker.ttlFor("franchise:1", DEFAULT_TTL)).isEqualTo(DEFAULT_TTL);
+        
+        clock.advance(Duration.ofHours(1));
+        assertThat(tracker.ttlFor("franchise:1", DEFAULT_TTL)).isEqualTo(Duration.ofHours(1));
+    }
+    
+    @Test
+    void ttlFor_DefaultWhenDisabled() {
+        // Given
+        EwmaWriteRateTracker disabled = new EwmaWriteRateTracker(false, Duration.ofSeconds(30), Duration.ofHours(1),
+                0.5, 1000, meterRegistry, clock);
+        disabled.recordWrite("product:1");
+        clock.advance(Duration.ofSeconds(1));
+        disabled.recordWrite("product:1");
+        
+        // When & Then
+        assertThat(disabled.ttlFor("product:1", DEFAULT_TTL)).isEqualTo(DEFAULT_TTL);
+    }
+    
+    private static class MutableClock extends Clock {
+        
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+        
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+        
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+        
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+        
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
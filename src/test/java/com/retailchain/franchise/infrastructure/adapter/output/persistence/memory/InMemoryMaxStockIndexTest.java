@@ -0,0 +1,102 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.memory;
+
+import com.retailchain.franchise.domain.model.Product;
+import com.retailchain.franchise.domain.port.output.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryMaxStockIndexTest {
+    
+    @Mock
+    private ProductRepository productRepository;
+    
+    private InMemoryMaxStockIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index = new InMemoryMaxStockIndex(productRepository, true);
+    }
+    
+    @Test
+    void load_BecomesReadyWithMaxPerBranch() {
+        // Given
+        when(productRepository.findAll()).thenReturn(Flux.just(
+                product(1L, 1L, 10),
+                product(2L, 1L, 30),
+                product(3L, 2L, 5)));
+        
+        // When
+        index.load();
+        
+        // Then
+        assertThat(index.isReady()).isTrue();
+        assertThat(ids(index.findMaxStockProducts(1L))).containsExactly(2L);
+        assertThat(ids(index.findMaxStockProducts(2L))).containsExactly(3L);
+        assertThat(index.findMaxStockProducts(99L)).isEmpty();
+    }
+    
+    @Test
+    void updateStock_TiesAreAllReported() {
+        // Given
+        index.put(product(1L, 1L, 10));
+        index.put(product(2L, 1L, 20));
+        
+        // When
+        index.updateStock(1L, 20);
+        
+        // Then
+        assertThat(ids(index.findMaxStockProducts(1L))).containsExactlyInAnyOrder(1L, 2L);
+    }
+    
+    @Test
+    void remove_CurrentMaxFallsBackToNextHighest() {
+        // Given
+        index.put(product(1L, 1L, 10));
+        index.put(product(2L, 1L, 50));
+        index.put(product(3L, 1L, 10));
+        
+        // When
+        index.remove(2L);
+        
+        // Then
+        assertThat(ids(index.findMaxStockProducts(1L))).containsExactlyInAnyOrder(1L, 3L);
+    }
+    
+    @Test
+    void updateStock_DecreasingMaxRescansBranch() {
+        // Given
+        index.put(product(1L, 1L, 40));
+        index.put(product(2L, 1L, 30));
+        
+        // When
+        index.updateStock(1L, 5);
+        
+        // Then
+        List<Product> max = index.findMaxStockProducts(1L);
+        assertThat(ids(max)).containsExactly(2L);
+        assertThat(max.get(0).getStock()).isEqualTo(30);
+    }
+    
+    private Product product(Long id, Long branchId, int stock) {
+        return Product.builder()
+                .id(id)
+                .name("Product " + id)
+                .stock(stock)
+                .branchId(branchId)
+                .build();
+    }
+    
+    private List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+}
@@ -0,0 +1,76 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.retailchain.franchise.application.dto.StockReportDto;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rough comparison of the previous JSON string encoding against VersionedCacheValueCodec.
+ * Not part of the test suite; run the main method from the IDE.
+ */
+public class CacheValueCodecBenchmark {
+    
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+    
+    public static void main(String[] args) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        
+        List<StockReportDto> report = new ArrayList<>();
+        for (long i = 1; i <= 20; i++) {
+            report.add(StockReportDto.builder()
+                    .productId(i)
+                    .productName("Product " + i)
+                    .stock((int) (i * 7))
+                    .branchId(i)
+                    .branchName("Branch " + i)
+                    .franchiseId(1L)
+                    .franchiseName("Franchise 1")
+                    .build());
+        }
+        StockReportDto[] value = report.toArray(StockReportDto[]::new);
+        
+        run("json string (previous)", new CacheValueCodec() {
+            @Override
+            public byte[] encode(Object v) throws IOException {
+                return objectMapper.writeValueAsString(v).getBytes(StandardCharsets.UTF_8);
+            }
+            
+            @Override
+            public <T> T decode(byte[] bytes, Class<T> type) throws IOException {
+                return objectMapper.readValue(new String(bytes, StandardCharsets.UTF_8), type);
+            }
+        }, value);
+        run("json + header", new VersionedCacheValueCodec(objectMapper, "json", 0), value);
+        run("smile", new VersionedCacheValueCodec(objectMapper, "smile", 0), value);
+        run("smile + deflate", new VersionedCacheValueCodec(objectMapper, "smile", 256), value);
+    }
+    
+    private static void run(String name, CacheValueCodec codec, StockReportDto[] value) throws Exception {
+        byte[] encoded = codec.encode(value);
+        for (int i = 0; i < WARMUP; i++) {
+            codec.decode(codec.encode(value), StockReportDto[].class);
+        }
+        
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            encoded = codec.encode(value);
+        }
+        long encodeNanos = System.nanoTime() - start;
+        
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            codec.decode(encoded, StockReportDto[].class);
+        }
+        long decodeNanos = System.nanoTime() - start;
+        
+        System.out.printf("%-24s %6d bytes  encode %6.2f us  decode %6.2f us%n",
+                name, encoded.length, encodeNanos / 1000.0 / ITERATIONS, decodeNanos / 1000.0 / ITERATIONS);
+    }
+}
@@ -0,0 +1,122 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.redis;
+
+import com.retailchain.franchise.domain.port.output.CacheAccessTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisCacheSnapshotTest {
+    
+    private static final byte[] FRANCHISE_BYTES = {2, 0, 42};
+    
+    @Mock
+    private ReactiveRedisTemplate<String, byte[]> redisTemplate;
+    
+    @Mock
+    private ReactiveValueOperations<String, byte[]> valueOperations;
+    
+    @Mock
+    private CacheAccessTracker accessTracker;
+    
+    @TempDir
+    Path directory;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private RedisCacheSnapshot snapshot;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        snapshot = new RedisCacheSnapshot(redisTemplate, accessTracker, meterRegistry,
+                directory.resolve("cache.snapshot"), Duration.ofMinutes(1), 100, Duration.ofSeconds(5));
+    }
+    
+    @Test
+    void restore_PutsBackSavedEntriesWhenRedisIsCold() {
+        // Given
+        givenSaved(Duration.ofMinutes(5));
+        when(valueOperations.setIfAbsent(RedisCacheSnapshot.WARM_MARKER_KEY, new byte[] {1}))
+                .thenReturn(Mono.just(true));
+        when(valueOperations.setIfAbsent(eq("franchise:1"), any(byte[].class), any(Duration.class)))
+                .thenReturn(Mono.just(true));
+        
+        // When & Then
+        StepVerifier.create(snapshot.restore()).verifyComplete();
+        
+        verify(valueOperations).setIfAbsent(eq("franchise:1"), argThat(bytes -> Arrays.equals(bytes, FRANCHISE_BYTES)),
+                argThat((Duration ttl) -> ttl.compareTo(Duration.ofMinutes(4)) > 0));
+        assertThat(meterRegistry.get("franchise.cache.snapshot.entries").tag("result", "restored").counter().count())
+                .isEqualTo(1.0);
+    }
+    
+    @Test
+    void restore_DropsExpiredEntries() throws InterruptedException {
+        // Given
+        givenSaved(Duration.ofMillis(1));
+        Thread.sleep(5);
+        when(valueOperations.setIfAbsent(RedisCacheSnapshot.WARM_MARKER_KEY, new byte[] {1}))
+                .thenReturn(Mono.just(true));
+        
+        // When & Then
+        StepVerifier.create(snapshot.restore()).verifyComplete();
+        
+        verify(valueOperations, never()).setIfAbsent(eq("franchise:1"), any(byte[].class), any(Duration.class));
+        assertThat(meterRegistry.get("franchise.cache.snapshot.entries").tag("result", "expired").counter().count())
+                .isEqualTo(1.0);
+    }
+    
+    @Test
+    void restore_SkippedWhenRedisKeptItsData() {
+        // Given
+        givenSaved(Duration.ofMinutes(5));
+        when(valueOperations.setIfAbsent(RedisCacheSnapshot.WARM_MARKER_KEY, new byte[] {1}))
+                .thenReturn(Mono.just(false));
+        
+        // When & Then
+        StepVerifier.create(snapshot.restore()).verifyComplete();
+        
+        verify(valueOperations, never()).setIfAbsent(eq("franchise:1"), any(byte[].class), any(Duration.class));
+    }
+    
+    @Test
+    void save_SkipsGenerationScopedKeys() {
+        // Given
+        when(accessTracker.hottestKeys(100)).thenReturn(Map.of("franchise:1:g3:branches", 9));
+        
+        // When & Then
+        StepVerifier.create(snapshot.save()).verifyComplete();
+        
+        verify(valueOperations, never()).multiGet(anyList());
+    }
+    
+    // Saves franchise:1 with the given remaining TTL; its meta entry is absent from Redis
+    private void givenSaved(Duration ttl) {
+        when(accessTracker.hottestKeys(100)).thenReturn(Map.of("franchise:1", 5));
+        when(valueOperations.multiGet(anyList())).thenReturn(Mono.just(Arrays.asList(FRANCHISE_BYTES, null)));
+        when(redisTemplate.getExpire(anyString())).thenReturn(Mono.just(ttl));
+        StepVerifier.create(snapshot.save()).verifyComplete();
+    }
+}
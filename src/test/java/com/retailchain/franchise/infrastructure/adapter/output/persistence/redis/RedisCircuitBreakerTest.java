@@ -0,0 +1,117 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.redis;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class RedisCircuitBreakerTest {
+    
+    @Mock
+    private ReactiveRedisConnectionFactory connectionFactory;
+    
+    private RedisCircuitBreaker circuitBreaker;
+    private AtomicInteger redisCalls;
+    
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new RedisCircuitBreaker(connectionFactory, new SimpleMeterRegistry(), true, 3,
+                Duration.ofMillis(100), Duration.ofMillis(50), Duration.ofMinutes(1));
+        redisCalls = new AtomicInteger();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        circuitBreaker.stopProbe();
+    }
+    
+    @Test
+    void execute_FailureResolvesToFallback() {
+        // When & Then
+        StepVerifier.create(circuitBreaker.execute("GET", failingCall(), Mono.just("fallback")))
+                .expectNext("fallback")
+                .verifyComplete();
+        
+        assertThat(circuitBreaker.isOpen()).isFalse();
+    }
+    
+    @Test
+    void execute_OpensAfterConsecutiveFailuresAndSkipsRedis() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.execute("GET", failingCall(), Mono.<String>empty()).block();
+        }
+        
+        // When & Then
+        assertThat(circuitBreaker.isOpen()).isTrue();
+        StepVerifier.create(circuitBreaker.execute("GET", failingCall(), Mono.just("fallback")))
+                .expectNext("fallback")
+                .verifyComplete();
+        assertThat(redisCalls).hasValue(3);
+    }
+    
+    @Test
+    void execute_SuccessResetsFailureCount() {
+        // Given
+        circuitBreaker.execute("GET", failingCall(), Mono.<String>empty()).block();
+        circuitBreaker.execute("GET", failingCall(), Mono.<String>empty()).block();
+        
+        // When
+        circuitBreaker.execute("GET", Mono.just("value"), Mono.<String>empty()).block();
+        circuitBreaker.execute("GET", failingCall(), Mono.<String>empty()).block();
+        
+        // Then
+        assertThat(circuitBreaker.isOpen()).isFalse();
+    }
+    
+    @Test
+    void execute_TimeoutsCountAsFailures() {
+        // Given
+        Mono<String> slowCall = Mono.delay(Duration.ofSeconds(1)).thenReturn("late");
+        
+        // When
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(circuitBreaker.execute("GET", slowCall, Mono.just("fallback")))
+                    .expectNext("fallback")
+                    .verifyComplete();
+        }
+        
+        // Then
+        assertThat(circuitBreaker.isOpen()).isTrue();
+    }
+    
+    @Test
+    void execute_SlowSuccessesBreachLatencyBudget() {
+        // Given
+        Mono<String> slowCall = Mono.delay(Duration.ofMillis(70)).thenReturn("value");
+        
+        // When
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(circuitBreaker.execute("GET", slowCall, Mono.just("fallback")))
+                    .expectNext("value")
+                    .verifyComplete();
+        }
+        
+        // Then
+        assertThat(circuitBreaker.isOpen()).isTrue();
+    }
+    
+    private Mono<String> failingCall() {
+        return Mono.defer(() -> {
+            redisCalls.incrementAndGet();
+            return Mono.error(new RuntimeException("Connection refused"));
+        });
+    }
+}
@@ -0,0 +1,237 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.redis;
+
+import com.retailchain.franchise.domain.exception.BusinessException;
+import com.retailchain.franchise.domain.model.Product;
+import com.retailchain.franchise.domain.model.RankedProduct;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveZSetOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisStockRankingIndexTest {
+    
+    @Mock
+    private ReactiveRedisTemplate<String, String> redisTemplate;
+    
+    @Mock
+    private ReactiveZSetOperations<String, String> zSetOps;
+    
+    @Mock
+    private ReactiveHashOperations<String, String, String> hashOps;
+    
+    @Mock
+    private ReactiveRedisConnectionFactory connectionFactory;
+    
+    private static final List<String> JOURNAL_KEYS = List.of("stock-ranking:rebuilding:1", "stock-ranking:journal:1");
+    
+    private RedisCircuitBreaker circuitBreaker;
+    private RedisStockRankingIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForZSet()).thenReturn(zSetOps);
+        lenient().doReturn(hashOps).when(redisTemplate).opsForHash();
+        // No rebuild running: journal writes are no-ops
+        lenient().doReturn(Flux.just(0L)).when(redisTemplate).execute(any(RedisScript.class), anyList(), anyList());
+        circuitBreaker = new RedisCircuitBreaker(connectionFactory, new SimpleMeterRegistry(), true, 1,
+                Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofMinutes(1));
+        index = new RedisStockRankingIndex(redisTemplate, circuitBreaker, true);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        circuitBreaker.stopProbe();
+    }
+    
+    @Test
+    void findRanked_TopKeepsRedisOrderForTies() {
+        // Given
+        when(zSetOps.reverseRangeWithScores("stock-ranking:franchise:1", Range.closed(0L, 2L)))
+                .thenReturn(Flux.just(entry("3", 9), entry("2", 4), entry("1", 4)));
+        
+        // When & Then
+        StepVerifier.create(index.findRanked(1L, null, 3, false))
+                .expectNext(ranked(3L, 9, 1L), ranked(2L, 4, 2L), ranked(1L, 4, 3L))
+                .verifyComplete();
+    }
+    
+    @Test
+    void findRanked_BottomRanksCountFromMostStock() {
+        // Given: ZRANGE is the exact reverse of ZREVRANGE, ties included
+        when(zSetOps.size("stock-ranking:branch:10")).thenReturn(Mono.just(5L));
+        when(zSetOps.rangeWithScores("stock-ranking:branch:10", Range.closed(0L, 2L)))
+                .thenReturn(Flux.just(entry("1", 4), entry("2", 4), entry("3", 9)));
+        
+        // When & Then
+        StepVerifier.create(index.findRanked(1L, 10L, 3, true))
+                .expectNext(ranked(1L, 4, 5L), ranked(2L, 4, 4L), ranked(3L, 9, 3L))
+                .verifyComplete();
+    }
+    
+    @Test
+    void put_WritesOneHashAndOneSortedSetCallPerKey() {
+        // Given
+        when(hashOps.putAll(eq(RedisStockRankingIndex.OWNERS_KEY), anyMap())).thenReturn(Mono.just(true));
+        when(zSetOps.addAll(anyString(), any())).thenReturn(Mono.just(1L));
+        
+        // When & Then
+        StepVerifier.create(index.put(1L, List.of(product(1L, 10L, 5), product(2L, 10L, 7), product(3L, 11L, 2))))
+                .verifyComplete();
+        
+        verify(hashOps).putAll(RedisStockRankingIndex.OWNERS_KEY, Map.of("1", "1:10", "2", "1:10", "3", "1:11"));
+        verify(zSetOps).addAll(eq("stock-ranking:franchise:1"), argThat(entries -> entries.size() == 3));
+        verify(zSetOps).addAll(eq("stock-ranking:branch:10"), argThat(entries -> entries.size() == 2));
+        verify(zSetOps).addAll(eq("stock-ranking:branch:11"), argThat(entries -> entries.size() == 1));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(JOURNAL_KEYS),
+                argThat(args -> args.containsAll(List.of("1", "10:5", "2", "10:7", "3", "11:2"))));
+    }
+    
+    @Test
+    void updateStocks_GroupsByOwnerAndSkipsUnindexedProducts() {
+        // Given
+        when(hashOps.multiGet(eq(RedisStockRankingIndex.OWNERS_KEY), any())).thenAnswer(invocation -> {
+            Collection<String> productIds = invocation.getArgument(1);
+            return Mono.just(productIds.stream().map(id -> id.equals("1") ? "1:10" : null).toList());
+        });
+        when(zSetOps.addAll(anyString(), any())).thenReturn(Mono.just(1L));
+        
+        // When & Then
+        StepVerifier.create(index.updateStocks(Map.of(1L, 6)).then(index.updateStocks(Map.of(1L, 6, 99L, 3))))
+                .verifyComplete();
+        
+        verify(zSetOps, times(2)).addAll(eq("stock-ranking:franchise:1"), argThat(entries -> entries.size() == 1));
+        verify(zSetOps, times(2)).addAll(eq("stock-ranking:branch:10"), argThat(entries -> entries.size() == 1));
+    }
+    
+    @Test
+    void put_SkipsRedisWhileBreakerIsOpen() {
+        // Given
+        circuitBreaker.execute("GET", Mono.error(new RuntimeException("Connection refused")), Mono.empty()).block();
+        
+        // When & Then
+        StepVerifier.create(index.put(1L, List.of(product(1L, 10L, 5))))
+                .verifyComplete();
+        
+        verify(hashOps, never()).putAll(anyString(), anyMap());
+    }
+    
+    @Test
+    void rebuild_SwapsFreshKeysAndDropsStaleEntries() {
+        // Given: branch 11 lost its last product and product 2 is gone, franchise 2 is untouched
+        when(redisTemplate.delete(any(String[].class))).thenReturn(Mono.just(1L));
+        when(hashOps.putAll(eq(RedisStockRankingIndex.OWNERS_KEY), anyMap())).thenReturn(Mono.just(true));
+        when(zSetOps.addAll(anyString(), any())).thenReturn(Mono.just(1L));
+        when(redisTemplate.hasKey("stock-ranking:franchise:1:rebuild")).thenReturn(Mono.just(true));
+        when(redisTemplate.hasKey("stock-ranking:branch:10:rebuild")).thenReturn(Mono.just(true));
+        when(redisTemplate.hasKey("stock-ranking:branch:11:rebuild")).thenReturn(Mono.just(false));
+        when(redisTemplate.rename(anyString(), anyString())).thenReturn(Mono.just(true));
+        when(hashOps.scan(eq(RedisStockRankingIndex.OWNERS_KEY), any(ScanOptions.class)))
+                .thenReturn(Flux.just(Map.entry("1", "1:10"), Map.entry("2", "1:11"), Map.entry("3", "2:20")));
+        when(hashOps.remove(eq(RedisStockRankingIndex.OWNERS_KEY), any())).thenReturn(Mono.just(1L));
+        givenRebuildStarts(true);
+        when(hashOps.entries("stock-ranking:journal:1")).thenReturn(Flux.empty());
+        
+        // When & Then
+        StepVerifier.create(index.rebuild(1L, List.of(10L, 11L), Flux.just(product(1L, 10L, 5))))
+                .expectNext(1L)
+                .verifyComplete();
+        
+        verify(redisTemplate).delete("stock-ranking:rebuilding:1", "stock-ranking:journal:1");
+        
+        verify(redisTemplate).delete("stock-ranking:franchise:1:rebuild", "stock-ranking:branch:10:rebuild",
+                "stock-ranking:branch:11:rebuild");
+        verify(zSetOps).addAll(eq("stock-ranking:franchise:1:rebuild"), any());
+        verify(redisTemplate).rename("stock-ranking:franchise:1:rebuild", "stock-ranking:franchise:1");
+        verify(redisTemplate).rename("stock-ranking:branch:10:rebuild", "stock-ranking:branch:10");
+        verify(redisTemplate).delete("stock-ranking:branch:11");
+        verify(hashOps).remove(RedisStockRankingIndex.OWNERS_KEY, "2");
+    }
+    
+    @Test
+    void rebuild_ReplaysWritesJournaledWhileRunning() {
+        // Given: product 2 was added and product 1 removed after the snapshot was read
+        givenRebuildStarts(true);
+        when(redisTemplate.delete(any(String[].class))).thenReturn(Mono.just(1L));
+        when(hashOps.putAll(eq(RedisStockRankingIndex.OWNERS_KEY), anyMap())).thenReturn(Mono.just(true));
+        when(zSetOps.addAll(anyString(), any())).thenReturn(Mono.just(1L));
+        when(zSetOps.remove(anyString(), any())).thenReturn(Mono.just(1L));
+        when(redisTemplate.hasKey(anyString())).thenReturn(Mono.just(true));
+        when(redisTemplate.rename(anyString(), anyString())).thenReturn(Mono.just(true));
+        when(hashOps.entries("stock-ranking:journal:1"))
+                .thenReturn(Flux.just(Map.entry("1", "10:-"), Map.entry("2", "10:9")));
+        when(hashOps.remove(eq(RedisStockRankingIndex.OWNERS_KEY), any())).thenReturn(Mono.just(1L));
+        when(hashOps.scan(eq(RedisStockRankingIndex.OWNERS_KEY), any(ScanOptions.class)))
+                .thenReturn(Flux.just(Map.entry("1", "1:10"), Map.entry("2", "1:10")));
+        
+        // When & Then
+        StepVerifier.create(index.rebuild(1L, List.of(10L), Flux.just(product(1L, 10L, 5))))
+                .expectNext(1L)
+                .verifyComplete();
+        
+        // Applied to the fresh keys before the swap and to the live keys after it
+        verify(zSetOps).addAll(eq("stock-ranking:franchise:1:rebuild"), argThat(entries -> entries.size() == 1
+                && "2".equals(entries.iterator().next().getValue())));
+        verify(zSetOps).addAll(eq("stock-ranking:franchise:1"), any());
+        verify(zSetOps).remove("stock-ranking:branch:10:rebuild", "1");
+        verify(zSetOps).remove("stock-ranking:branch:10", "1");
+        verify(hashOps, never()).remove(RedisStockRankingIndex.OWNERS_KEY, "2");
+    }
+    
+    @Test
+    void rebuild_RefusedWhileAnotherRuns() {
+        // Given
+        givenRebuildStarts(false);
+        
+        // When & Then
+        StepVerifier.create(index.rebuild(1L, List.of(10L), Flux.just(product(1L, 10L, 5))))
+                .expectError(BusinessException.class)
+                .verify();
+        
+        verify(zSetOps, never()).addAll(anyString(), any());
+    }
+    
+    private void givenRebuildStarts(boolean started) {
+        doReturn(Flux.just(started ? 1L : 0L)).when(redisTemplate).execute(any(RedisScript.class), eq(JOURNAL_KEYS),
+                eq(List.of(Long.toString(Duration.ofMinutes(15).toMillis()))));
+    }
+    
+    private static TypedTuple<String> entry(String member, double score) {
+        return TypedTuple.of(member, score);
+    }
+    
+    private static RankedProduct ranked(Long productId, int stock, Long rank) {
+        return RankedProduct.builder().productId(productId).stock(stock).rank(rank).build();
+    }
+    
+    private static Product product(Long id, Long branchId, int stock) {
+        return Product.builder().id(id).branchId(branchId).stock(stock).name("Product " + id).build();
+    }
+}
@@ -0,0 +1,220 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.redis;
+
+import com.retailchain.franchise.domain.model.Franchise;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TwoTierCacheAdapterTest {
+    
+    @Mock
+    private RedisCacheAdapter redisCache;
+    
+    @Mock
+    private ReactiveRedisTemplate<String, String> redisTemplate;
+    
+    @Mock
+    private ReactiveRedisConnectionFactory connectionFactory;
+    
+    private RedisCircuitBreaker circuitBreaker;
+    private TwoTierCacheAdapter cache;
+    
+    private Franchise testFranchise;
+    
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new RedisCircuitBreaker(connectionFactory, new SimpleMeterRegistry(), true, 1,
+                Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofMinutes(1));
+        cache = new TwoTierCacheAdapter(redisCache, redisTemplate, circuitBreaker, 100, Duration.ofSeconds(30));
+        testFranchise = Franchise.builder()
+                .id(1L)
+                .name("Test Franchise")
+                .build();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        circuitBreaker.stopProbe();
+    }
+    
+    @Test
+    void get_ServedFromL1AfterSet() {
+        // Given
+        when(redisCache.set(anyString(), any(), any(Duration.class))).thenReturn(Mono.empty());
+        when(redisTemplate.convertAndSend(anyString(), anyString())).thenReturn(Mono.just(1L));
+        
+        // When & Then
+        StepVerifier.create(cache.set("franchise:1", testFranchise, Duration.ofMinutes(10)))
+                .verifyComplete();
+        StepVerifier.create(cache.get("franchise:1", Franchise.class))
+                .expectNext(testFranchise)
+                .verifyComplete();
+        
+        verify(redisCache, never()).get(anyString(), any());
+        verify(redisTemplate).convertAndSend(eq(TwoTierCacheAdapter.INVALIDATION_CHANNEL), endsWith("|franchise:1"));
+    }
+    
+    @Test
+    void get_L1MissFallsBackToRedis() {
+        // Given
+        when(redisCache.get("franchise:1", Franchise.class)).thenReturn(Mono.just(testFranchise));
+        
+        // When & Then
+        StepVerifier.create(cache.get("franchise:1", Franchise.class))
+                .expectNext(testFranchise)
+                .verifyComplete();
+        StepVerifier.create(cache.get("franchise:1", Franchise.class))
+                .expectNext(testFranchise)
+                .verifyComplete();
+        
+        verify(redisCache, times(1)).get("franchise:1", Franchise.class);
+    }
+    
+    @Test
+    void increment_GenerationReadsServedFromL1UntilBumped() {
+        // Given
+        when(redisCache.increment("franchise:1:gen", 0)).thenReturn(Mono.just(3L));
+        when(redisCache.increment("franchise:1:gen", 1)).thenReturn(Mono.just(4L));
+        when(redisTemplate.convertAndSend(anyString(), anyString())).thenReturn(Mono.just(1L));
+        
+        // When & Then
+        StepVerifier.create(cache.increment("franchise:1:gen", 0))
+                .expectNext(3L)
+                .verifyComplete();
+        StepVerifier.create(cache.increment("franchise:1:gen", 0))
+                .expectNext(3L)
+                .verifyComplete();
+        StepVerifier.create(cache.increment("franchise:1:gen", 1))
+                .expectNext(4L)
+                .verifyComplete();
+        StepVerifier.create(cache.increment("franchise:1:gen", 0))
+                .expectNext(4L)
+                .verifyComplete();
+        
+        verify(redisCache, times(1)).increment("franchise:1:gen", 0);
+        verify(redisTemplate).convertAndSend(eq(TwoTierCacheAdapter.INVALIDATION_CHANNEL), endsWith("|franchise:1:gen"));
+    }
+    
+    @Test
+    void delete_RemovesFromL1AndPublishes() {
+        // Given
+        when(redisCache.set(anyString(), any(), any(Duration.class))).thenReturn(Mono.empty());
+        when(redisCache.delete("franchise:1")).thenReturn(Mono.empty());
+        when(redisCache.get("franchise:1", Franchise.class)).thenReturn(Mono.empty());
+        when(redisTemplate.convertAndSend(anyString(), anyString())).thenReturn(Mono.just(1L));
+        
+        // When & Then
+        StepVerifier.create(cache.set("franchise:1", testFranchise, Duration.ofMinutes(10))
+                        .then(cache.delete("franchise:1")))
+                .verifyComplete();
+        StepVerifier.create(cache.get("franchise:1", Franchise.class))
+                .verifyComplete();
+        
+        verify(redisTemplate, times(2)).convertAndSend(eq(TwoTierCacheAdapter.INVALIDATION_CHANNEL), anyString());
+    }
+    
+    @Test
+    void getAll_OnlyL1MissesGoToRedis() {
+        // Given
+        Franchise franchise2 = Franchise.builder()
+                .id(2L)
+                .name("Franchise 2")
+                .build();
+        when(redisCache.get("franchise:1", Franchise.class)).thenReturn(Mono.just(testFranchise));
+        when(redisCache.getAll(List.of("franchise:2", "franchise:3"), Franchise.class))
+                .thenReturn(Mono.just(Map.of("franchise:2", franchise2)));
+        StepVerifier.create(cache.get("franchise:1", Franchise.class))
+                .expectNext(testFranchise)
+                .verifyComplete();
+        
+        // When & Then
+        StepVerifier.create(cache.getAll(List.of("franchise:1", "franchise:2", "franchise:3"), Franchise.class))
+                .expectNext(Map.of("franchise:1", testFranchise, "franchise:2", franchise2))
+                .verifyComplete();
+        StepVerifier.create(cache.get("franchise:2", Franchise.class))
+                .expectNext(franchise2)
+                .verifyComplete();
+        
+        verify(redisCache, never()).get("franchise:2", Franchise.class);
+    }
+    
+    @Test
+    void deleteAll_RemovesFromL1AndPublishesOneMessage() {
+        // Given
+        when(redisCache.setAll(anyMap(), any(Duration.class))).thenReturn(Mono.empty());
+        when(redisCache.deleteAll(List.of("franchise:1", "franchise:2"))).thenReturn(Mono.empty());
+        when(redisCache.get("franchise:1", Franchise.class)).thenReturn(Mono.empty());
+        when(redisTemplate.convertAndSend(anyString(), anyString())).thenReturn(Mono.just(1L));
+        StepVerifier.create(cache.setAll(Map.of("franchise:1", testFranchise), Duration.ofMinutes(10)))
+                .verifyComplete();
+        
+        // When & Then
+        StepVerifier.create(cache.deleteAll(List.of("franchise:1", "franchise:2")))
+                .verifyComplete();
+        StepVerifier.create(cache.get("franchise:1", Franchise.class))
+                .verifyComplete();
+        
+        verify(redisTemplate).convertAndSend(eq(TwoTierCacheAdapter.INVALIDATION_CHANNEL), endsWith("|franchise:1"));
+        verify(redisTemplate).convertAndSend(eq(TwoTierCacheAdapter.INVALIDATION_CHANNEL),
+                endsWith("|franchise:1\nfranchise:2"));
+    }
+    
+    @Test
+    void invalidationFromAnotherNode_DropsEveryKeyInTheMessage() {
+        // Given
+        when(redisCache.setAll(anyMap(), any(Duration.class))).thenReturn(Mono.empty());
+        when(redisTemplate.convertAndSend(anyString(), anyString())).thenReturn(Mono.just(1L));
+        when(redisCache.get(anyString(), eq(Franchise.class))).thenReturn(Mono.empty());
+        StepVerifier.create(cache.setAll(Map.of("franchise:1", testFranchise, "franchise:2", testFranchise),
+                        Duration.ofMinutes(10)))
+                .verifyComplete();
+        doReturn(Flux.just(new ReactiveSubscription.ChannelMessage<>(TwoTierCacheAdapter.INVALIDATION_CHANNEL,
+                "other-node|franchise:1\nfranchise:2")))
+                .when(redisTemplate).listenToChannel(TwoTierCacheAdapter.INVALIDATION_CHANNEL);
+        
+        // When
+        cache.subscribe();
+        
+        // Then
+        StepVerifier.create(cache.get("franchise:1", Franchise.class)).verifyComplete();
+        StepVerifier.create(cache.get("franchise:2", Franchise.class)).verifyComplete();
+        cache.unsubscribe();
+    }
+    
+    @Test
+    void set_SkipsPublishWhileBreakerIsOpen() {
+        // Given
+        circuitBreaker.execute("GET", Mono.error(new RuntimeException("Connection refused")), Mono.empty()).block();
+        when(redisCache.set(anyString(), any(), any(Duration.class))).thenReturn(Mono.empty());
+        
+        // When & Then
+        StepVerifier.create(cache.set("franchise:1", testFranchise, Duration.ofMinutes(10)))
+                .verifyComplete();
+        StepVerifier.create(cache.get("franchise:1", Franchise.class))
+                .expectNext(testFranchise)
+                .verifyComplete();
+        
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+}
@@ -0,0 +1,80 @@
+package com.retailchain.franchise.infrastructure.adapter.output.persistence.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.retailchain.franchise.domain.model.Franchise;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionedCacheValueCodecTest {
+    
+    private ObjectMapper objectMapper;
+    private Franchise franchise;
+    
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        franchise = Franchise.builder()
+                .id(1L)
+                .name("Test Franchise")
+                .createdAt(LocalDateTime.of(2024, 1, 1, 10, 0))
+                .updatedAt(LocalDateTime.of(2024, 1, 2, 10, 0))
+                .build();
+    }
+    
+    @Test
+    void smile_RoundTripsWithHeader() throws Exception {
+        // Given
+        VersionedCacheValueCodec codec = new VersionedCacheValueCodec(objectMapper, "smile", 0);
+        
+        // When
+        byte[] encoded = codec.encode(franchise);
+        
+        // Then
+        assertThat(encoded[0]).isEqualTo(VersionedCacheValueCodec.FORMAT_SMILE);
+        assertThat(encoded.length).isLessThan(objectMapper.writeValueAsBytes(franchise).length);
+        assertThat(codec.decode(encoded, Franchise.class)).isEqualTo(franchise);
+    }
+    
+    @Test
+    void decode_ReadsValuesWrittenInAnotherFormat() throws Exception {
+        // Given
+        VersionedCacheValueCodec jsonCodec = new VersionedCacheValueCodec(objectMapper, "json", 0);
+        VersionedCacheValueCodec smileCodec = new VersionedCacheValueCodec(objectMapper, "smile", 0);
+        
+        // When & Then
+        assertThat(smileCodec.decode(jsonCodec.encode(franchise), Franchise.class)).isEqualTo(franchise);
+        assertThat(jsonCodec.decode(smileCodec.encode(franchise), Franchise.class)).isEqualTo(franchise);
+    }
+    
+    @Test
+    void decode_ReadsLegacyPlainJson() throws Exception {
+        // Given
+        VersionedCacheValueCodec codec = new VersionedCacheValueCodec(objectMapper, "smile", 0);
+        byte[] legacy = objectMapper.writeValueAsString(franchise).getBytes(StandardCharsets.UTF_8);
+        
+        // When & Then
+        assertThat(codec.decode(legacy, Franchise.class)).isEqualTo(franchise);
+    }
+    
+    @Test
+    void encode_CompressesAboveThreshold() throws Exception {
+        // Given
+        VersionedCacheValueCodec codec = new VersionedCacheValueCodec(objectMapper, "smile", 64);
+        franchise.setName("Franchise ".repeat(50));
+        
+        // When
+        byte[] encoded = codec.encode(franchise);
+        
+        // Then
+        assertThat(encoded[1] & VersionedCacheValueCodec.FLAG_DEFLATED).isNotZero();
+        assertThat(encoded.length).isLessThan(200);
+        assertThat(codec.decode(encoded, Franchise.class)).isEqualTo(franchise);
+    }
+}